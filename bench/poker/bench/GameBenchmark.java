@@ -0,0 +1,98 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import poker.GameEngine;
+import poker.card.Deck;
+import poker.card.IDeck;
+import poker.player.AbstractPlayer;
+import poker.player.BluffingAggressive;
+import poker.player.BluffingPassive;
+import poker.player.CautiousAggressive;
+import poker.player.CautiousPassive;
+
+/**
+ * Benchmarks the showdown and a full hand of betting rounds.
+ * @author Ron.Coleman
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    // Bankroll large enough that nobody goes broke during a hand
+    private final static int BANKROLL = 1000;
+
+    protected GameEngine table;
+
+    @Setup
+    public void setup() {
+        ArrayList<AbstractPlayer> players = new ArrayList<>();
+        players.add(new BluffingAggressive());
+        players.add(new BluffingPassive());
+        players.add(new CautiousAggressive());
+        players.add(new CautiousPassive());
+
+        IDeck deck = new Deck();
+
+        deck.seed(0);
+
+        table = new GameEngine(players, deck, 1);
+
+        // Play one hand so there are hands and actions for the showdown
+        restock();
+
+        table.playGame();
+    }
+
+    /**
+     * Tops up the bankrolls so every hand is played in full.
+     */
+    protected void restock() {
+        for(AbstractPlayer player: table.getPlayers())
+            player.setBankroll(BANKROLL);
+    }
+
+    @Benchmark
+    public AbstractPlayer selectWinner() {
+        return table.selectWinner();
+    }
+
+    @Benchmark
+    public AbstractPlayer doRounds() {
+        restock();
+
+        return table.playGame();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import poker.GameEngine;
+import poker.card.Card;
+import poker.card.Deck;
+import poker.player.AbstractPlayer;
+import poker.player.Bayes;
+import poker.player.BluffingAggressive;
+import poker.player.CautiousPassive;
+import poker.player.DecisionKernel;
+import poker.util.Action;
+
+/**
+ * Benchmarks the player decisions, the batch decisions of the threshold
+ * bots, and the Bayes opponent model updates.
+ * @author Ron.Coleman
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+    // Bankroll large enough that no decision is forced by the chips
+    private final static int BANKROLL = 1000;
+
+    // Threshold bots decided in one batch
+    private final static int BATCH = 1024;
+
+    protected AbstractPlayer bot;
+    protected Bayes bayes;
+    protected AbstractPlayer opponent;
+
+    protected double[] wps = new double[BATCH];
+    protected double[] alphas = new double[BATCH];
+    protected double[] betas = new double[BATCH];
+    protected int[] bankrolls = new int[BATCH];
+    protected byte[] actions = new byte[BATCH];
+
+    @Setup
+    public void setup() {
+        bot = new BluffingAggressive();
+        bayes = new Bayes();
+        opponent = new CautiousPassive();
+
+        ArrayList<AbstractPlayer> players = new ArrayList<>();
+        players.add(bot);
+        players.add(bayes);
+        players.add(opponent);
+
+        GameEngine table = new GameEngine(players, new Deck(), 1);
+
+        // Deal everyone in so the table counts three players still in
+        for(AbstractPlayer player: players)
+            player.setBankroll(BANKROLL);
+
+        table.playGame();
+
+        // Cards strong enough that the decisions raise instead of folding
+        // so the count of players still in doesn't change
+        int[] ranks = { 10, Card.ACE, 5 };
+        for(int seat=0; seat < players.size(); seat++) {
+            AbstractPlayer player = players.get(seat);
+
+            player.clear();
+
+            player.hit(new Card(ranks[seat]));
+
+            player.setBankroll(BANKROLL);
+        }
+
+        // Mix of the four fixed styles over a spread of cards
+        AbstractPlayer[] styles = { bot, opponent, new CautiousPassive(), new BluffingAggressive() };
+        for(int k=0; k < BATCH; k++) {
+            wps[k] = (k % 97) / 97.0;
+            alphas[k] = styles[k % styles.length].getAlpha();
+            betas[k] = styles[k % styles.length].getBeta();
+            bankrolls[k] = k % 5;
+        }
+    }
+
+    @Benchmark
+    public Action getAction() {
+        return bot.getAction(1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public byte[] decideBatch() {
+        DecisionKernel.decide(wps, alphas, betas, bankrolls, 1, actions, BATCH);
+
+        return actions;
+    }
+
+    @Benchmark
+    public void bayesActed() {
+        bayes.acted(opponent, Action.RAISE);
+    }
+
+    @Benchmark
+    public Action bayesGetAction() {
+        return bayes.getAction(1);
+    }
+}
@@ -0,0 +1,673 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import poker.card.HandEvaluator;
+import poker.card.IDeck;
+import poker.card.WinTable;
+import poker.event.GameEventListener;
+import poker.event.NullListener;
+import poker.metrics.Metrics;
+import poker.player.AbstractPlayer;
+import poker.player.PlayerFactory;
+import poker.stats.Statistics;
+import poker.util.Action;
+import poker.util.GameConfig;
+import poker.util.TieRule;
+
+/**
+ * This class implements one table of Poughkeepsie hold'em.<p>
+ * Each engine owns its pot, seats, deck, and statistics so any number of
+ * tables may be played in the same process. The engine writes nothing to
+ * the console; it reports its progress to a listener which ignores
+ * everything unless one is set.
+ * @author Ron.Coleman
+ */
+public class GameEngine {
+    /**
+     * Pot (or "jackpot")
+     */
+    protected int pot;
+
+    /**
+     * Number of players still in the game which the players use to get
+     * their win probability.
+     */
+    protected int numPlayers;
+
+    /**
+     * Number of games played so far
+     */
+    protected int gamesPlayed;
+
+    // List of players never changes although the state of players might
+    protected final ArrayList<AbstractPlayer> players;
+
+    // Deck for this table
+    protected final IDeck deck;
+
+    // Blind and raise amount in chips
+    protected final int minBet;
+
+    // Configuration of this table or null if it was seated by hand
+    protected GameConfig config;
+
+    // Cards dealt to each player
+    protected int cardsPerHand = 1;
+
+    // Rule for settling ties
+    protected TieRule tieRule = TieRule.SPLIT;
+
+    // Contributions by seat for the side pots
+    protected final PotManager pots;
+
+    // Sink for the game events
+    protected GameEventListener listener = NullListener.INSTANCE;
+
+    // Statistics by seat, which tables may share
+    protected Statistics stats;
+
+    // Metrics, which tables may share, or null if not measured
+    protected Metrics metrics;
+
+    // Rounds of betting in this game so far
+    protected int rounds;
+
+    // Players who want to see every action
+    protected final AbstractPlayer[] subscribers;
+
+    // Actions of the round not yet published to the subscribers
+    protected AbstractPlayer[] actors = new AbstractPlayer[16];
+    protected Action[] actions = new Action[16];
+    protected int numPending;
+
+    /**
+     * Constructor
+     * @param config Configuration which makes the players and deck
+     */
+    public GameEngine(GameConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Constructor
+     * @param config Configuration which makes the deck
+     * @param factory Factory to take the players from or null for new ones
+     */
+    public GameEngine(GameConfig config, PlayerFactory factory) {
+        this(factory == null ? config.newPlayers() : config.newPlayers(factory), config.newDeck(), config.getMinBet());
+
+        this.config = config;
+
+        setEvaluator(config.getEvaluator());
+
+        setTieRule(config.getTieRule());
+    }
+
+    /**
+     * Constructor
+     * @param players Players to seat at this table
+     * @param deck Deck
+     * @param minBet Blind and raise amount in chips
+     */
+    public GameEngine(ArrayList<AbstractPlayer> players, IDeck deck, int minBet) {
+        this.players = players;
+
+        this.deck = deck;
+
+        this.minBet = minBet;
+
+        this.pots = new PotManager(players.size());
+
+        this.stats = new Statistics(players.size(), 1);
+
+        this.subscribers = players.stream().filter(AbstractPlayer::isSubscriber).toArray(AbstractPlayer[]::new);
+
+        for(int seat=0; seat < players.size(); seat++) {
+            AbstractPlayer player = players.get(seat);
+
+            player.sit(this, seat);
+
+            player.getHand().setWinTable(deck.getWinTable());
+        }
+    }
+
+    /**
+     * Plays up to a number of games, stopping early when only one solvent
+     * player remains.
+     * @param numGames Maximum number of games
+     * @return Number of games played
+     */
+    public int playMatch(int numGames) {
+        for (int game = 1; game <= numGames; game++) {
+            AbstractPlayer winner = playGame();
+
+            // Nobody left but one player!
+            if(winner == null)
+                break;
+
+            // If only one player solvent, no need to play more games
+            if(checkSolvency() == 1)
+                break;
+        }
+
+        if(metrics != null)
+            metrics.banked(players);
+
+        return gamesPlayed;
+    }
+
+    /**
+     * Plays one game.
+     * @return Winning player or null if fewer than two players could ante
+     */
+    public AbstractPlayer playGame() {
+        // Reset the game
+        shuffle();
+
+        pot = 0;
+
+        pots.reset();
+
+        int active = 0;
+
+        for(AbstractPlayer player: players) {
+            player.reset();
+
+            if(player.getBankroll() <= 0)
+                continue;
+
+            player.hit(deck.dealRank());
+
+            // Add to the jackpot, going all in if short
+            collect(player, Math.min(minBet, player.getBankroll()));
+
+            active++;
+        }
+
+        // Nobody left but one player who gets back the ante!
+        if(active < 2) {
+            for(AbstractPlayer player: players)
+                player.won(pots.getContribution(player.getSeat()));
+
+            return null;
+        }
+
+        // Deal the rest of the cards a round at a time
+        for(int card=1; card < cardsPerHand; card++)
+            for(AbstractPlayer player: players)
+                if(!player.getHand().isEmpty())
+                    player.hit(deck.dealRank());
+
+        numPlayers = active;
+
+        gamesPlayed++;
+
+        // Do betting rounds
+        listener.gameStarted(this, gamesPlayed);
+
+        for(AbstractPlayer player: players)
+            for(int card=0; card < player.getHand().size(); card++)
+                listener.dealt(this, player, player.getHand().getCardRank(card));
+
+        // Do the betting and identify the winner, timing them if measured
+        AbstractPlayer winner;
+
+        if(metrics == null) {
+            doRounds();
+
+            winner = selectWinner();
+        }
+        else {
+            long t0 = System.nanoTime();
+
+            doRounds();
+
+            long t1 = System.nanoTime();
+
+            winner = selectWinner();
+
+            metrics.played(rounds, t1 - t0, System.nanoTime() - t1);
+        }
+
+        // Update the winners' bankrolls
+        settle();
+
+        // Report players who can't ante for the next game
+        for(AbstractPlayer player: players)
+            if(player.getBankroll() <= 0 && !player.getHand().isEmpty())
+                listener.busted(this, player);
+
+        listener.gameEnded(this, gamesPlayed);
+
+        return winner;
+    }
+
+    /**
+     * Pays the main pot and any side pots and counts one win for each seat
+     * which won a contested pot.
+     */
+    protected void settle() {
+        pots.settle(players, tieRule);
+
+        for(int seat=0; seat < players.size(); seat++) {
+            int payout = pots.getPayout(seat);
+
+            if(payout > 0)
+                pay(players.get(seat), payout);
+
+            // Collect win frequency data
+            if(pots.isWinner(seat))
+                stats.won(seat, payout);
+        }
+    }
+
+    /**
+     * Pays chips to a winner.
+     * @param winner Winner
+     * @param amount Chips
+     */
+    protected void pay(AbstractPlayer winner, int amount) {
+        winner.won(amount);
+
+        listener.showdown(this, winner, amount);
+    }
+
+    /**
+     * Check number of solvent players.
+     * @return Solvent count
+     */
+    public int checkSolvency() {
+        int count = 0;
+
+        for(AbstractPlayer player: players) {
+            if(player.getBankroll()> 0)
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Selects the game winner
+     * @return Winning player
+     */
+    public AbstractPlayer selectWinner() {
+        AbstractPlayer winner = null;
+
+        int maxRank = -1;
+
+        for (AbstractPlayer player : players) {
+            if(!player.isActive() && !player.isAllIn())
+                continue;
+
+            int rank = player.getHand().getRank();
+
+            if (rank > maxRank) {
+                winner = player;
+                maxRank = rank;
+            }
+        }
+
+        return winner;
+    }
+
+    /**
+     * Do betting rounds and publish the last of the actions.
+     */
+    public void doRounds() {
+        doBetting();
+
+        publish();
+    }
+
+    /**
+     * Do betting rounds
+     */
+    protected void doBetting() {
+        rounds = 0;
+        while (true) {
+            rounds++;
+            publish();
+            listener.roundStarted(this, rounds);
+            int active = 0;
+            int raising = 0;
+            int playerNum = 0;
+
+            int raise = 0;
+
+            // PASS #1: Find out who wants to CHECK, RAISE, or FOLD
+            for (AbstractPlayer player : players) {
+                playerNum++;
+
+                // End the round if I'm last player and no one is left
+                // there's no point in raising, checking, or whatever
+                if(playerNum == players.size() && active == 0)
+                    return;
+
+                // Skip players who were not dealt in
+                if(player.getHand().isEmpty())
+                    continue;
+
+                // A player who is all in stays in without acting
+                if(player.getBankroll() == 0) {
+                    if(player.isAllIn())
+                        active++;
+
+                    continue;
+                }
+
+                // A player who folded in an earlier round gets to decide again
+                if(player.getLastAction() == Action.FOLD)
+                    numPlayers++;
+
+                // Clear last action since this is a new round
+                player.clearAction();
+
+                Action action = decide(player, raise);
+
+                // Inform other players
+                informAll(player, action, action == Action.RAISE ? minBet : 0);
+
+                // If player not in it to win it, skip them
+                if(!player.isActive())
+                    continue;
+
+                // If player did not fold, they're still in as RAISE or CHECK
+                if (action != Action.FOLD)
+                    active++;
+
+                // If player is RAISING, we may need another round, depending
+                // how many players remain.
+                if (action == Action.RAISE) {
+                    raising++;
+
+                    raise = minBet;
+
+                    collect(player, Math.min(raise, player.getBankroll()));
+                }
+            }
+
+            // If only one player remains or no one raising, rounds are done!
+            if (active == 1 || raising == 0)
+                return;
+
+            // PASS #2: Call in bets from those not already folded
+            active = 0;
+
+            int acting = 0;
+
+            for (AbstractPlayer player : players) {
+                if (player.isAllIn()) {
+                    active++;
+                }
+                else if (player.isActive()) {
+                    active++;
+
+                    if (!player.didRaise()) {
+                        Action action = decide(player, raise);
+                        informAll(player, action, action != Action.FOLD ? raise : 0);
+
+                        if (action != Action.FOLD)
+                            collect(player, Math.min(raise, player.getBankroll()));
+                        else
+                            active--;
+                    }
+
+                    if (player.isActive() && player.getBankroll() > 0)
+                        acting++;
+                }
+            }
+
+            // Done if only one player remains or there's no one left to bet
+            if(active == 1 || acting < 2)
+                return;
+        }
+    }
+
+    /**
+     * Puts a player's chips in the pot.
+     * @param player Player
+     * @param chips Chips
+     */
+    protected void collect(AbstractPlayer player, int chips) {
+        player.bet(chips);
+
+        pot += chips;
+
+        pots.add(player.getSeat(), chips);
+    }
+
+    /**
+     * Shuffles the deck, timing it if measured.
+     */
+    protected void shuffle() {
+        if(metrics == null) {
+            deck.shuffle();
+
+            return;
+        }
+
+        long t0 = System.nanoTime();
+
+        deck.shuffle();
+
+        metrics.shuffled(System.nanoTime() - t0);
+    }
+
+    /**
+     * Gets a player's action, first publishing the actions so far if the
+     * player subscribes to them.
+     * @param player Player
+     * @param raise Amount to call
+     * @return Action
+     */
+    protected Action decide(AbstractPlayer player, int raise) {
+        if(player.isSubscriber())
+            publish();
+
+        if(metrics == null)
+            return player.getAction(raise);
+
+        long t0 = System.nanoTime();
+
+        Action action = player.getAction(raise);
+
+        metrics.decided(player, action, System.nanoTime() - t0);
+
+        return action;
+    }
+
+    /**
+     * Inform all player of this action by player. The subscribers get it
+     * in the next batch.
+     * @param action Action
+     * @param player Taken by this player
+     * @param amount Chips the action puts in the pot
+     */
+    protected void informAll(AbstractPlayer player, Action action, int amount) {
+        if(subscribers.length != 0) {
+            if(numPending == actions.length) {
+                actors = Arrays.copyOf(actors, numPending * 2);
+                actions = Arrays.copyOf(actions, numPending * 2);
+            }
+
+            actors[numPending] = player;
+            actions[numPending] = action;
+            numPending++;
+        }
+
+        if(action == Action.FOLD)
+            stats.folded(player.getSeat());
+        else if(action == Action.RAISE)
+            stats.raised(player.getSeat());
+
+        listener.acted(this, player, action, amount);
+    }
+
+    /**
+     * Publishes the pending actions in order to every subscriber.
+     */
+    protected void publish() {
+        for(AbstractPlayer subscriber: subscribers)
+            for(int k=0; k < numPending; k++)
+                subscriber.acted(actors[k], actions[k]);
+
+        numPending = 0;
+    }
+
+    /**
+     * Invoked when a player folds to take them out of the count of players
+     * still in the game.
+     */
+    public void folded() {
+        numPlayers--;
+    }
+
+    /**
+     * Sets the evaluator for hands of more than one card.
+     * @param evaluator Evaluator or null to deal one card
+     */
+    public void setEvaluator(HandEvaluator evaluator) {
+        cardsPerHand = evaluator == null ? 1 : evaluator.getCards();
+
+        WinTable winTable = evaluator == null ? deck.getWinTable() : evaluator.getWinTable();
+
+        for(AbstractPlayer player: players) {
+            player.getHand().setEvaluator(evaluator);
+
+            player.getHand().setWinTable(winTable);
+        }
+    }
+
+    /**
+     * Sets the rule for settling ties.
+     * @param tieRule Tie rule
+     */
+    public void setTieRule(TieRule tieRule) {
+        this.tieRule = tieRule;
+    }
+
+    /**
+     * Sets the sink for the game events.
+     * @param listener Listener
+     */
+    public void setListener(GameEventListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the sink for the game events.
+     * @return Listener
+     */
+    public GameEventListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Gets the pot
+     * @return Pot size in chips
+     */
+    public int getPotSize() {
+        return pot;
+    }
+
+    /**
+     * Gets the number of players still in the game.
+     * @return Integer
+     */
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    /**
+     * Gets the blind and raise amount.
+     * @return Chips
+     */
+    public int getMinBet() {
+        return minBet;
+    }
+
+    /**
+     * Gets the deck.
+     * @return IDeck
+     */
+    public IDeck getDeck() {
+        return deck;
+    }
+
+    /**
+     * Gets the configuration of this table.
+     * @return Configuration or null if the table was seated by hand
+     */
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets the number of games played.
+     * @return Integer
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Gets the players.
+     * @return List of players
+     */
+    public ArrayList<AbstractPlayer> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Sets the statistics, for instance to share them with other tables.
+     * @param stats Statistics with at least as many seats as this table
+     */
+    public void setStatistics(Statistics stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Gets the statistics.
+     * @return Statistics
+     */
+    public Statistics getStatistics() {
+        return stats;
+    }
+
+    /**
+     * Sets the metrics to record into, which tables may share.
+     * @param metrics Metrics or null not to measure
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the metrics.
+     * @return Metrics or null if not measured
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import poker.player.AbstractPlayer;
+import poker.util.TieRule;
+
+/**
+ * This class keeps each seat's contribution to the pot and settles the
+ * main pot and the side pots when players are all in.<p>
+ * Sorted by contribution, the pot is a stack of layers: the layer from one
+ * contribution up to the next is contested by the seats which put in at
+ * least that much, and goes to the best hand still in among them. As the
+ * best hands of those seats only get worse going up the stack, one pass
+ * pays every layer, with the share of tied hands carried up as a running
+ * sum. All the arrays are allocated once so settling allocates nothing.
+ * @author Ron.Coleman
+ */
+public class PotManager {
+    protected final int[] contributions;
+    protected final int[] payouts;
+    protected final int[] ranks;
+    protected final boolean[] live;
+
+    // Seats which won a layer someone else also put in
+    protected final boolean[] winners;
+
+    // Seats in order of contribution
+    protected final int[] order;
+
+    // Best rank, number of seats with it, and first of them by seat from
+    // each place in the order to the end
+    protected final int[] bestRanks;
+    protected final int[] numBest;
+    protected final int[] firstSeats;
+
+    protected int total;
+
+    /**
+     * Constructor
+     * @param numSeats Number of seats
+     */
+    public PotManager(int numSeats) {
+        contributions = new int[numSeats];
+        payouts = new int[numSeats];
+        ranks = new int[numSeats];
+        live = new boolean[numSeats];
+        winners = new boolean[numSeats];
+        order = new int[numSeats];
+        bestRanks = new int[numSeats];
+        numBest = new int[numSeats];
+        firstSeats = new int[numSeats];
+    }
+
+    /**
+     * Empties the pot for a new game.
+     */
+    public void reset() {
+        Arrays.fill(contributions, 0);
+
+        total = 0;
+    }
+
+    /**
+     * Adds chips to the pot.
+     * @param seat Seat putting in the chips
+     * @param chips Chips
+     */
+    public void add(int seat, int chips) {
+        contributions[seat] += chips;
+
+        total += chips;
+    }
+
+    /**
+     * Works out what each seat wins.
+     * @param players Players by seat
+     * @param tieRule Rule for settling ties
+     */
+    public void settle(ArrayList<AbstractPlayer> players, TieRule tieRule) {
+        int n = players.size();
+
+        for(int seat=0; seat < n; seat++) {
+            AbstractPlayer player = players.get(seat);
+
+            live[seat] = !player.getHand().isEmpty() && (player.isActive() || player.isAllIn());
+
+            ranks[seat] = live[seat] ? player.getHand().getRank() : -1;
+
+            payouts[seat] = 0;
+
+            winners[seat] = false;
+
+            // Insertion sort keeps equal contributions in seat order
+            int k = seat;
+
+            for(; k > 0 && contributions[order[k-1]] > contributions[seat]; k--)
+                order[k] = order[k-1];
+
+            order[k] = seat;
+        }
+
+        int best = -1;
+        int count = 0;
+        int first = -1;
+
+        for(int k=n-1; k >= 0; k--) {
+            int seat = order[k];
+
+            if(live[seat]) {
+                if(ranks[seat] > best) {
+                    best = ranks[seat];
+                    count = 1;
+                    first = seat;
+                }
+                else if(ranks[seat] == best) {
+                    count++;
+                    first = Math.min(first, seat);
+                }
+            }
+
+            bestRanks[k] = best;
+            numBest[k] = count;
+            firstSeats[k] = first;
+        }
+
+        int level = 0;
+
+        // Each tied seat's share of the layers so far for the current best
+        int share = 0;
+
+        int lastRank = -1;
+
+        // Whether the layers in the share were contested
+        boolean contested = false;
+
+        // Chips folded seats put in above all the live seats
+        int leftover = 0;
+
+        int lastWinner = -1;
+
+        boolean leftoverContested = false;
+
+        for(int k=0; k < n; k++) {
+            int seat = order[k];
+
+            int layer = (contributions[seat] - level) * (n - k);
+
+            level = contributions[seat];
+
+            if(bestRanks[k] < 0) {
+                leftover += layer;
+
+                leftoverContested |= layer > 0 && n - k > 1;
+
+                continue;
+            }
+
+            if(bestRanks[k] != lastRank) {
+                lastRank = bestRanks[k];
+
+                share = 0;
+
+                contested = false;
+            }
+
+            lastWinner = firstSeats[k];
+
+            // A layer only one seat put in is a refund, not a win
+            contested |= layer > 0 && n - k > 1;
+
+            if(tieRule == TieRule.FIRST) {
+                payouts[firstSeats[k]] += layer;
+
+                winners[firstSeats[k]] |= layer > 0 && n - k > 1;
+            }
+            else {
+                share += layer / numBest[k];
+
+                // The odd chips go to the first seat
+                payouts[firstSeats[k]] += layer % numBest[k];
+
+                if(live[seat] && ranks[seat] == bestRanks[k]) {
+                    payouts[seat] += share;
+
+                    winners[seat] |= contested;
+                }
+            }
+        }
+
+        if(lastWinner >= 0) {
+            payouts[lastWinner] += leftover;
+
+            winners[lastWinner] |= leftoverContested;
+        }
+    }
+
+    /**
+     * Gets what a seat won in the last settlement.
+     * @param seat Seat
+     * @return Chips
+     */
+    public int getPayout(int seat) {
+        return payouts[seat];
+    }
+
+    /**
+     * Tests whether a seat won a pot in the last settlement. A seat only
+     * getting back chips nobody else matched did not win.
+     * @param seat Seat
+     * @return True if the seat won a contested pot
+     */
+    public boolean isWinner(int seat) {
+        return winners[seat];
+    }
+
+    /**
+     * Gets what a seat put in the pot.
+     * @param seat Seat
+     * @return Chips
+     */
+    public int getContribution(int seat) {
+        return contributions[seat];
+    }
+
+    /**
+     * Gets the size of the pot.
+     * @return Chips
+     */
+    public int getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.json.simple.parser.ParseException;
+import poker.card.IDeck;
+import poker.player.AbstractPlayer;
+import poker.player.PlayerFactory;
+import poker.player.Threshold;
+import poker.stats.Statistics;
+import poker.util.Bank;
+import poker.util.Confidence;
+import poker.util.GameConfig;
+
+/**
+ * This class sweeps the alpha / beta thresholds of one or more seats to
+ * find the best ones against the other players in the config file.<p>
+ * Usage: SweepRunner seats alphaMin alphaMax betaMin betaMax [steps [levels [threads [seed]]]]<p>
+ * The seats, e.g., 0 or 0,2, are played by Threshold bots. Each level
+ * plays a steps x steps grid over the ranges, every point a tournament of
+ * its own in batches of matches spread over the threads. A point stops
+ * early once the upper bound of its match win rate is below the lower
+ * bound of the best point. The next level refines the grid to one step
+ * around the best point.
+ * @author Ron.Coleman
+ */
+public class SweepRunner {
+    /** Matches per batch */
+    public final static int BATCH = 100;
+
+    /** Most matches per point */
+    public final static int MAX_MATCHES = 2000;
+
+    // Configurator
+    protected final GameConfig config;
+
+    // Seats played by the thresholds
+    protected final int[] seats;
+
+    // Number of worker threads
+    protected final int numThreads;
+
+    // Root of the random streams for the batches
+    protected final SplittableRandom random;
+
+    /**
+     * Constructor
+     * @param config Configuration with the player and deck classes
+     * @param seats Seats played by the thresholds
+     * @param numThreads Number of worker threads
+     * @param seed Seed for the root random stream
+     */
+    public SweepRunner(GameConfig config, int[] seats, int numThreads, long seed) {
+        this.config = config;
+
+        this.seats = seats;
+
+        this.numThreads = numThreads;
+
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Launch point for sweep
+    public static void main(String[] args) throws IOException, ParseException {
+        if(args.length < 5) {
+            System.err.println("usage: SweepRunner seats alphaMin alphaMax betaMin betaMax [steps [levels [threads [seed]]]]");
+            System.exit(1);
+        }
+
+        String[] fields = args[0].split(",");
+
+        int[] seats = new int[fields.length];
+        for(int k=0; k < seats.length; k++)
+            seats[k] = Integer.parseInt(fields[k]);
+
+        double alphaMin = Double.parseDouble(args[1]);
+        double alphaMax = Double.parseDouble(args[2]);
+        double betaMin = Double.parseDouble(args[3]);
+        double betaMax = Double.parseDouble(args[4]);
+
+        int steps = args.length > 5 ? Integer.parseInt(args[5]) : 5;
+
+        int levels = args.length > 6 ? Integer.parseInt(args[6]) : 3;
+
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        if(args.length > 7)
+            numThreads = Integer.parseInt(args[7]);
+
+        GameConfig config = GameConfig.load();
+
+        Long configSeed = config.getSeed();
+
+        long seed = configSeed != null ? configSeed : System.nanoTime();
+        if(args.length > 8)
+            seed = Long.parseLong(args[8]);
+
+        SweepRunner runner = new SweepRunner(config, seats, numThreads, seed);
+
+        Point best = runner.sweep(alphaMin, alphaMax, betaMin, betaMax, steps, levels);
+
+        System.out.printf("best alpha = %.4f beta = %.4f\n",best.alpha,best.beta);
+    }
+
+    /**
+     * Sweeps the thresholds level by level.
+     * @param alphaMin Lowest alpha
+     * @param alphaMax Highest alpha
+     * @param betaMin Lowest beta
+     * @param betaMax Highest beta
+     * @param steps Grid points along each axis
+     * @param levels Number of levels
+     * @return Best point of the last level
+     * @throws IllegalStateException if a batch fails or the sweep is
+     * interrupted, with the failure as its cause
+     */
+    public Point sweep(double alphaMin, double alphaMax, double betaMin, double betaMax, int steps, int levels) {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+
+        Point best = null;
+
+        try {
+            for(int level=1; level <= levels; level++) {
+                double alphaStep = steps > 1 ? (alphaMax - alphaMin) / (steps - 1) : 0;
+                double betaStep = steps > 1 ? (betaMax - betaMin) / (steps - 1) : 0;
+
+                ArrayList<Point> points = new ArrayList<>();
+
+                for(int i=0; i < steps; i++)
+                    for(int j=0; j < steps; j++)
+                        points.add(new Point(alphaMin + i * alphaStep, betaMin + j * betaStep));
+
+                best = evaluate(points, pool);
+
+                report(level, points, best);
+
+                // Refine to one step around the best point
+                alphaMin = Math.max(best.alpha - alphaStep, 0);
+                alphaMax = Math.min(best.alpha + alphaStep, 1);
+                betaMin = Math.max(best.beta - betaStep, 0);
+                betaMax = Math.min(best.beta + betaStep, 1);
+            }
+        } finally {
+            // Drop any batches still queued if a level failed
+            pool.shutdownNow();
+        }
+
+        return best;
+    }
+
+    /**
+     * Plays batches of matches for the points still in until each has
+     * played the most matches or been dropped.
+     * @param points Points
+     * @param pool Worker threads
+     * @return Point with the best match win rate
+     */
+    protected Point evaluate(ArrayList<Point> points, ExecutorService pool) {
+        while(true) {
+            ArrayList<Point> running = new ArrayList<>();
+
+            ArrayList<Future<Point>> futures = new ArrayList<>();
+
+            // Seeds are drawn in order so results don't depend on the threads
+            for(Point point: points) {
+                if(!point.isLive())
+                    continue;
+
+                long seed = random.nextLong();
+
+                running.add(point);
+
+                futures.add(pool.submit(() -> play(point.alpha, point.beta, BATCH, seed)));
+            }
+
+            if(futures.isEmpty())
+                break;
+
+            try {
+                for(int k=0; k < futures.size(); k++)
+                    running.get(k).merge(futures.get(k).get());
+
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("batch failed", ex.getCause());
+
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("interrupted", ex);
+            }
+
+            // Drop the points that are clearly worse than the best
+            double bestLow = -1;
+            for(Point point: points)
+                if(!point.dropped)
+                    bestLow = Math.max(bestLow, point.getWinRate() - point.getWinRateHalfWidth());
+
+            for(Point point: points)
+                if(!point.dropped && point.getWinRate() + point.getWinRateHalfWidth() < bestLow)
+                    point.dropped = true;
+        }
+
+        Point best = null;
+
+        for(Point point: points)
+            if(!point.dropped && (best == null || point.getWinRate() > best.getWinRate()))
+                best = point;
+
+        return best;
+    }
+
+    /**
+     * Plays a batch of matches with the thresholds in their seats.
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     * @param numMatches Number of matches
+     * @param seed Seed for the decks
+     * @return Results of the batch
+     */
+    protected Point play(double alpha, double beta, int numMatches, long seed) {
+        Point results = new Point(alpha, beta);
+
+        SplittableRandom ran = new SplittableRandom(seed);
+
+        for(int match=0; match < numMatches; match++) {
+            IDeck deck = config.newDeck();
+
+            deck.seed(ran.nextLong());
+
+            ArrayList<AbstractPlayer> players = newPlayers(alpha, beta);
+
+            GameEngine table = new GameEngine(players, deck, config.getMinBet());
+
+            table.setEvaluator(config.getEvaluator());
+
+            table.setTieRule(config.getTieRule());
+
+            results.games += table.playMatch(config.getNumGames());
+
+            // The match goes to the biggest bankroll
+            int winner = 0;
+            for(int seat=1; seat < players.size(); seat++)
+                if(players.get(seat).getBankroll() > players.get(winner).getBankroll())
+                    winner = seat;
+
+            int bankroll = 0;
+
+            for(int seat: seats) {
+                bankroll += players.get(seat).getBankroll();
+
+                results.gameWins += table.getStatistics().get(seat, Statistics.WINS);
+
+                if(seat == winner)
+                    results.matchWins++;
+            }
+
+            results.matches++;
+
+            results.sumBankroll += bankroll;
+
+            results.sumSquares += (double) bankroll * bankroll;
+        }
+
+        return results;
+    }
+
+    /**
+     * Makes the players of a table: the thresholds in the swept seats and
+     * the players of the config file in the others, each with its share of
+     * the bank.
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     * @return Players by seat
+     */
+    protected ArrayList<AbstractPlayer> newPlayers(double alpha, double beta) {
+        List<String> names = config.getPlayerClassNames();
+
+        ArrayList<AbstractPlayer> players = new ArrayList<>(names.size());
+
+        boolean[] swept = new boolean[names.size()];
+
+        for(int seat: seats)
+            swept[seat] = true;
+
+        int credit = Bank.getCredit(config);
+
+        for(int seat=0; seat < names.size(); seat++) {
+            AbstractPlayer player = swept[seat] ? new Threshold(alpha, beta) : PlayerFactory.getConstructor(names.get(seat)).get();
+
+            player.setBankroll(credit);
+
+            players.add(player);
+        }
+
+        return players;
+    }
+
+    /**
+     * Display the points of a level.
+     * @param level Level
+     * @param points Points
+     * @param best Best point
+     */
+    protected void report(int level, ArrayList<Point> points, Point best) {
+        System.out.println("Level "+level);
+
+        System.out.printf("%7s %7s %8s %16s %8s %20s\n","alpha","beta","matches","match win","game win","b/r");
+
+        for(Point point: points)
+            System.out.printf("%7.4f %7.4f %8d %7.4f +- %.4f %7.4f %9.1f +- %7.1f %s\n",
+                    point.alpha,point.beta,point.matches,point.getWinRate(),point.getWinRateHalfWidth(),
+                    point.getGameWinRate(),point.getBankroll(),point.getBankrollHalfWidth(),
+                    point == best ? "best" : point.dropped ? "dropped" : "");
+    }
+
+    /**
+     * This class holds the results of one pair of thresholds.
+     */
+    public static class Point {
+        protected final double alpha;
+        protected final double beta;
+        protected long matches;
+        protected long matchWins;
+        protected long games;
+        protected long gameWins;
+        protected double sumBankroll;
+        protected double sumSquares;
+        protected Boolean dropped = false;
+
+        /**
+         * Constructor
+         * @param alpha Threshold to stay in
+         * @param beta Threshold to raise
+         */
+        public Point(double alpha, double beta) {
+            this.alpha = alpha;
+
+            this.beta = beta;
+        }
+
+        /**
+         * Adds the results of a batch.
+         * @param batch Batch
+         */
+        protected void merge(Point batch) {
+            matches += batch.matches;
+            matchWins += batch.matchWins;
+            games += batch.games;
+            gameWins += batch.gameWins;
+            sumBankroll += batch.sumBankroll;
+            sumSquares += batch.sumSquares;
+        }
+
+        /**
+         * Answers whether the point needs more matches.
+         * @return Boolean
+         */
+        protected Boolean isLive() {
+            return !dropped && matches < MAX_MATCHES;
+        }
+
+        /**
+         * Gets the center of the Wilson interval of the match win rate.
+         * @return Rate
+         */
+        public double getWinRate() {
+            return Confidence.getWilsonCenter(matchWins, matches, Confidence.Z95);
+        }
+
+        /**
+         * Gets the half-width of the Wilson interval of the match win rate.
+         * @return Half-width
+         */
+        public double getWinRateHalfWidth() {
+            return Confidence.getWilsonHalfWidth(matchWins, matches, Confidence.Z95);
+        }
+
+        /**
+         * Gets the fraction of games won.
+         * @return Rate
+         */
+        public double getGameWinRate() {
+            return games == 0 ? 0 : (double) gameWins / games;
+        }
+
+        /**
+         * Gets the mean final bankroll.
+         * @return Chips
+         */
+        public double getBankroll() {
+            return matches == 0 ? 0 : sumBankroll / matches;
+        }
+
+        /**
+         * Gets the half-width of the normal interval of the final bankroll.
+         * @return Chips
+         */
+        public double getBankrollHalfWidth() {
+            return Confidence.getNormalHalfWidth(sumBankroll, sumSquares, matches, Confidence.Z95);
+        }
+
+        /**
+         * Gets the threshold to stay in.
+         * @return Win probability
+         */
+        public double getAlpha() {
+            return alpha;
+        }
+
+        /**
+         * Gets the threshold to raise.
+         * @return Win probability
+         */
+        public double getBeta() {
+            return beta;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.json.simple.parser.ParseException;
+import poker.metrics.Metrics;
+import poker.metrics.MetricsExporter;
+import poker.player.AbstractPlayer;
+import poker.player.PlayerFactory;
+import poker.stats.Snapshot;
+import poker.stats.Statistics;
+import poker.util.GameConfig;
+
+/**
+ * This class plays many independent matches in parallel, one table per
+ * match, and merges the results by seat.<p>
+ * Usage: TournamentRunner [matches [threads [seed]]]<p>
+ * The seed defaults to the one in the config file, if any. Every table's
+ * deck is seeded from its worker's stream. All tables record into one set
+ * of striped statistics.
+ * @author Ron.Coleman
+ */
+public class TournamentRunner {
+    /** Default number of matches to play */
+    public final static int NUM_MATCHES = 10000;
+
+    // Configurator
+    protected final GameConfig config;
+
+    // Number of worker threads
+    protected final int numThreads;
+
+    // Root of the random streams split off to each worker
+    protected final SplittableRandom random;
+
+    // Metrics or null if not measured
+    protected Metrics metrics;
+
+    // Results by seat
+    protected Statistics stats;
+    protected Snapshot snapshot;
+    protected long gamesPlayed;
+
+    /**
+     * Constructor
+     * @param config Configuration with the player and deck classes
+     * @param numThreads Number of worker threads
+     * @param seed Seed for the root random stream
+     */
+    public TournamentRunner(GameConfig config, int numThreads, long seed) {
+        this.config = config;
+
+        this.numThreads = numThreads;
+
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Launch point for tournament
+    public static void main(String[] args) throws IOException, ParseException {
+        int numMatches = NUM_MATCHES;
+        if(args.length > 0)
+            numMatches = Integer.parseInt(args[0]);
+
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        if(args.length > 1)
+            numThreads = Integer.parseInt(args[1]);
+
+        GameConfig config = GameConfig.load();
+
+        Long configSeed = config.getSeed();
+
+        long seed = configSeed != null ? configSeed : System.nanoTime();
+        if(args.length > 2)
+            seed = Long.parseLong(args[2]);
+
+        TournamentRunner runner = new TournamentRunner(config, numThreads, seed);
+
+        MetricsExporter exporter = MetricsExporter.start(config);
+
+        if(exporter != null)
+            runner.setMetrics(exporter.getMetrics());
+
+        try {
+            runner.run(numMatches);
+
+            runner.report();
+
+        } finally {
+            if(exporter != null)
+                exporter.close();
+        }
+    }
+
+    /**
+     * Plays the matches split evenly across the worker threads.
+     * @param numMatches Number of matches
+     * @throws IllegalStateException if a worker fails or the run is
+     * interrupted, with the failure as its cause
+     */
+    public void run(int numMatches) {
+        int numSeats = config.getNumPlayers();
+
+        stats = new Statistics(numSeats, numThreads);
+        gamesPlayed = 0;
+
+        long t0 = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+
+        ArrayList<Future<Shard>> futures = new ArrayList<>();
+
+        for(int k=0; k < numThreads; k++) {
+            // Spread the remainder over the first few shards
+            int count = numMatches / numThreads + (k < numMatches % numThreads ? 1 : 0);
+
+            Shard shard = new Shard(k, count, random.split());
+
+            futures.add(pool.submit(() -> shard.play()));
+        }
+
+        System.out.printf("%6s %8s %8s %10s\n","thread","matches","games","games/s");
+
+        try {
+            for(Future<Shard> future: futures) {
+                Shard shard = future.get();
+
+                gamesPlayed += shard.gamesPlayed;
+
+                System.out.printf("%6d %8d %8d %10.0f\n",shard.num,shard.numMatches,shard.gamesPlayed,shard.getThroughput());
+            }
+        } catch (ExecutionException ex) {
+            // Partial totals would pass for the whole run so don't report them
+            pool.shutdownNow();
+
+            throw new IllegalStateException("shard failed", ex.getCause());
+
+        } catch (InterruptedException ex) {
+            pool.shutdownNow();
+
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("interrupted", ex);
+
+        } finally {
+            pool.shutdown();
+        }
+
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+
+        snapshot = stats.snapshot();
+
+        System.out.printf("%6s %8d %8d %10.0f\n","all",numMatches,gamesPlayed,gamesPlayed / elapsed);
+    }
+
+    /**
+     * Display the merged results by seat.
+     */
+    public void report() {
+        System.out.println("Tournament statistics");
+        System.out.println("---------------------");
+        System.out.println("Played "+gamesPlayed+" game(s).");
+
+        System.out.printf("%4s %6s %10s %10s %10s %10s\n","seat","player","wins","folds","raises","b/r");
+
+        ArrayList<AbstractPlayer> players = config.newPlayers();
+
+        for(int seat=0; seat < snapshot.getNumSeats(); seat++)
+            System.out.printf("%4d %-6s %10d %10d %10d %10d\n",seat,players.get(seat).decorated(),
+                    snapshot.getWins(seat),snapshot.getFolds(seat),snapshot.getRaises(seat),snapshot.getBankrolls(seat));
+    }
+
+    /**
+     * Sets the metrics for every table to record into.
+     * @param metrics Metrics or null not to measure
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the results by seat of the last run.
+     * @return Snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the number of games played over all matches.
+     * @return Games
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * This class is the work of one thread: it plays its matches one table
+     * at a time with its own players, deck, and random stream.
+     */
+    protected class Shard {
+        protected final int num;
+        protected final int numMatches;
+        protected final SplittableRandom random;
+        protected final PlayerFactory factory = new PlayerFactory();
+        protected long gamesPlayed;
+        protected long elapsed;
+
+        /**
+         * Constructor
+         * @param num Shard number
+         * @param numMatches Number of matches to play
+         * @param random Random stream for this shard only
+         */
+        protected Shard(int num, int numMatches, SplittableRandom random) {
+            this.num = num;
+
+            this.numMatches = numMatches;
+
+            this.random = random;
+        }
+
+        /**
+         * Plays the matches.
+         * @return This shard
+         */
+        protected Shard play() {
+            long t0 = System.nanoTime();
+
+            for(int match=0; match < numMatches; match++) {
+                GameEngine table = new GameEngine(config, factory);
+
+                table.getDeck().seed(random.nextLong());
+
+                table.setStatistics(stats);
+
+                table.setMetrics(metrics);
+
+                gamesPlayed += table.playMatch(config.getNumGames());
+
+                for(AbstractPlayer player: table.getPlayers())
+                    stats.banked(player.getSeat(), player.getBankroll());
+
+                config.recycle(factory, table.getPlayers());
+            }
+
+            elapsed = System.nanoTime() - t0;
+
+            return this;
+        }
+
+        /**
+         * Gets the throughput of this shard.
+         * @return Games per second
+         */
+        protected double getThroughput() {
+            return elapsed == 0 ? 0 : gamesPlayed / (elapsed / 1e9);
+        }
+    }
+}
@@ -1,58 +1,94 @@
-/*
- Copyright (c) 2015 Ron Coleman
- Permission is hereby granted, free of charge, to any person obtaining
- a copy of this software and associated documentation files (the
- "Software"), to deal in the Software without restriction, including
- without limitation the rights to use, copy, modify, merge, publish,
- distribute, sublicense, and/or sell copies of the Software, and to
- permit persons to whom the Software is furnished to do so, subject to
- the following conditions:
- The above copyright notice and this permission notice shall be
- included in all copies or substantial portions of the Software.
- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
- EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
- MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
- NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
- LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
- OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
- WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
- */
-package poker.card;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
-
-/**
- * This class implements the deck.
- * @author Ron.Coleman
- */
-public class Deck implements IDeck {
-    protected ArrayList<Card> cards = new ArrayList<>();
-    protected int nextIndex = 0;
-    
-    /**
-     * Constructor
-     */
-    public Deck() {
-        for(int rank=2; rank <= Card.ACE; rank++)
-            cards.add(new Card(rank));
-    }
-    
-    /**
-     * Shuffles the deck.
-     */
-    public void shuffle() {
-        nextIndex = 0;
-        
-        Collections.shuffle(cards,new Random(0));
-    }
-    
-    /**
-     * Deals one card.
-     * @return Card
-     */
-    public Card deal() {
-        return cards.get(nextIndex++);
-    }
-}
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * This class implements the deck.
+ * @author Ron.Coleman
+ */
+public class Deck implements IDeck {
+    protected int[] ranks = new int[Card.ACE - 1];
+    protected int nextIndex = 0;
+    protected Random random = new Random(0);
+    
+    /**
+     * Constructor
+     */
+    public Deck() {
+        for(int rank=2; rank <= Card.ACE; rank++)
+            ranks[rank-2] = rank;
+    }
+    
+    /**
+     * Shuffles the deck.
+     */
+    public void shuffle() {
+        nextIndex = 0;
+        
+        // Same swaps as Collections.shuffle so seeds give the same orderings
+        for(int i=ranks.length; i > 1; i--) {
+            int j = random.nextInt(i);
+            
+            int rank = ranks[i-1];
+            
+            ranks[i-1] = ranks[j];
+            
+            ranks[j] = rank;
+        }
+    }
+    
+    /**
+     * Seeds the shuffle.
+     * @param seed Seed
+     */
+    @Override
+    public void seed(long seed) {
+        random = new Random(seed);
+    }
+    
+    /**
+     * Splits off a random stream seeded from the shuffle's.
+     * @return Random stream
+     */
+    @Override
+    public SplittableRandom split() {
+        return new SplittableRandom(random.nextLong());
+    }
+    
+    /**
+     * Deals one card.
+     * @return Card
+     */
+    public Card deal() {
+        return Card.valueOf(dealRank());
+    }
+    
+    /**
+     * Deals one card as its rank.
+     * @return Rank
+     */
+    @Override
+    public int dealRank() {
+        return ranks[nextIndex++];
+    }
+}
@@ -1,138 +1,235 @@
-/*
- Copyright (c) 2015 Ron Coleman
- Permission is hereby granted, free of charge, to any person obtaining
- a copy of this software and associated documentation files (the
- "Software"), to deal in the Software without restriction, including
- without limitation the rights to use, copy, modify, merge, publish,
- distribute, sublicense, and/or sell copies of the Software, and to
- permit persons to whom the Software is furnished to do so, subject to
- the following conditions:
- The above copyright notice and this permission notice shall be
- included in all copies or substantial portions of the Software.
- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
- EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
- MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
- NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
- LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
- OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
- WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
- */
-package poker.card;
-
-import java.util.ArrayList;
-
-/**
- * This class represents a hand.
- * @author Ron.Coleman
- */
-public class Hand {
-//    // Set to true for "exact" win probability using combinatorial method
-//    public final static Boolean USE_COMBINATORIAL = false;
-    
-    // Win probability matrix
-    protected static double[][] wpMatrix = {
-        /*         hand: 2       3       4       5       6       7       8       9       10      Ace */
-        /* 2 players */ {0.000,  0.111,  0.222,  0.333,  0.444,  0.555,  0.667,  0.777,  0.889,  1.000},
-        /* 3 players */ {0.000,  0.000,  0.028,  0.083,  0.167,  0.278,  0.416,  0.583,  0.778,  1.000},
-        /* 4 players */ {0.000,  0.000,  0.000,  0.012,  0.048,  0.119,  0.238,  0.417,  0.666,  1.000},
-        /* 5 players */ {0.000,  0.000,  0.000,  0.000,  0.008,  0.040,  0.119,  0.278,  0.556,  1.000}
-    };
-    
-    /**
-     * Cards in this hand
-     */
-    protected ArrayList<Card> cards = new ArrayList<>();
-    
-    /**
-     * Get hand's card.
-     * @return Card
-     */
-    public Card getCard() {
-        assert(!cards.isEmpty());
-        
-        return cards.get(0);
-    }
-    
-    /**
-     * Gets the rank of the hand which is just the rank of the one card
-     * in the hand.
-     * @return Rank as an integer
-     */
-    public int getRank() {
-        return getCard().getRank();
-    }
-    
-    /**
-     * Hits hand with a card
-     * @param card Card
-     */
-    public void hit(Card card) {
-        cards.add(card);
-    }
-    
-    /**
-     * Clears the cards in hand.
-     */
-    public void clear() {
-        cards.clear();
-    }
-
-    /**
-     * Gets the win probability given the number of hands in the game
-     * @param numHands Number of hands 2-5.
-     * @return Probability
-     */
-    public double getWinProbability(int numHands) {
-        assert(numHands >=2 && numHands <=5);
-        assert(!cards.isEmpty());
-        
-        int rank = cards.get(0).getRank();
-        assert(rank >=2 && rank <= 11);
-        
-//        if(USE_COMBINATORIAL)
-//            return combinatorial(rank);
-
-        // numHands-2 as there must be a min of two hands
-        // rank-2 as ranks range from 2 - 11
-        double wp = wpMatrix[numHands-2][rank-2];
-        
-        return wp;
-    }
-
-    /**
-     * Calculate win probability assuming four players. NOT USED
-     * @param rank Card rank
-     * @return win probability
-     */
-    protected double combinatorial(int rank) {        
-        // Card in my hand is the first card thus we'll need to
-        // calculate in turn the probably that my card loses against
-        // three subsequent cards in other player's hands.
-        
-        // Assuming two cards have been dealt (mine and another), my card
-        // is less than the other. For instance, if my card is a 9, then
-        // there are (11-rank) or 2 cards that I can lose to.
-        double card2LoseProb = (11 - rank) / 9.;
-        
-        // Assuming three cards have been dealt (mine plus two others), my card
-        // is greater than one but less than the other.
-        double card3LoseProb = (1 - (11-rank)/9.) *  (11 - rank) / 8.;
-        
-        // Assuming all four cards have been dealt (mine plus three others), my card
-        // is greater than two but less than one
-        double card4LoseProb = (1 - (11-rank)/9.) * (1 - (11-rank)/8.) * (11 - rank) / 7.;
-        
-        // Add all the lose probabilities
-        double loseProb = card2LoseProb + card3LoseProb + card4LoseProb;
-        
-        // Winning probability is one less than the lose probability.
-        double winProb = 1 - loseProb;
-        
-        return winProb;
-    }
-    
-    @Override
-    public String toString() {
-        return "card: "+ (!cards.isEmpty() ? cards.get(0) : "NA");
-    }
-}
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a hand.<p>
+ * A hand is one card unless it has an evaluator, in which case it keeps
+ * its cards in ascending order and its rank is the evaluator's score.
+ * @author Ron.Coleman
+ */
+public class Hand {
+    /**
+     * Win probabilities for the deck this hand is dealt from
+     */
+    protected WinTable winTable = WinTable.getStandard();
+    
+    /**
+     * Ranks of the cards in this hand
+     */
+    protected int[] ranks = new int[1];
+    
+    /**
+     * Number of cards in this hand
+     */
+    protected int size = 0;
+    
+    /**
+     * Evaluator of hands of more than one card or null for one card
+     */
+    protected HandEvaluator evaluator;
+    
+    /**
+     * Score of the full hand from the evaluator
+     */
+    protected int score;
+    
+    /**
+     * Get hand's card.
+     * @return Card
+     */
+    public Card getCard() {
+        assert(size != 0);
+        
+        return Card.valueOf(ranks[0]);
+    }
+    
+    /**
+     * Gets the rank of the hand which is just the rank of the one card
+     * in the hand or the score of a hand of more cards.
+     * @return Rank as an integer
+     */
+    public int getRank() {
+        return evaluator == null ? ranks[0] : score;
+    }
+    
+    /**
+     * Gets the rank of a card in the hand.
+     * @param index Index of the card
+     * @return Rank
+     */
+    public int getCardRank(int index) {
+        return ranks[index];
+    }
+    
+    /**
+     * Gets the number of cards in the hand.
+     * @return Integer
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Hits hand with a card
+     * @param card Card
+     */
+    public void hit(Card card) {
+        hit(card.getRank());
+    }
+    
+    /**
+     * Hits hand with a card by its rank.
+     * @param rank Card rank
+     */
+    public void hit(int rank) {
+        if(size == ranks.length)
+            ranks = Arrays.copyOf(ranks, size * 2);
+        
+        if(evaluator == null) {
+            ranks[size++] = rank;
+            
+            return;
+        }
+        
+        // Keep the cards in order for the evaluator
+        int k = size++;
+        
+        for(; k > 0 && ranks[k-1] > rank; k--)
+            ranks[k] = ranks[k-1];
+        
+        ranks[k] = rank;
+        
+        if(size == evaluator.getCards())
+            score = evaluator.score(ranks);
+    }
+    
+    /**
+     * Answers whether the hand has no cards, i.e., it was not dealt in.
+     * @return Boolean
+     */
+    public Boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Clears the cards in hand.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets the win probability given the number of hands in the game
+     * @param numHands Number of hands up to the number of cards in the deck
+     * @return Probability
+     */
+    public double getWinProbability(int numHands) {
+        return winTable.get(numHands, getRank());
+    }
+    
+    /**
+     * Sets the win probabilities for the deck this hand is dealt from.
+     * @param winTable Win table
+     */
+    public void setWinTable(WinTable winTable) {
+        this.winTable = winTable;
+    }
+    
+    /**
+     * Gets the win probabilities for the deck this hand is dealt from.
+     * @return Win table
+     */
+    public WinTable getWinTable() {
+        return winTable;
+    }
+    
+    /**
+     * Sets the evaluator for hands of more than one card.
+     * @param evaluator Evaluator or null for one card
+     */
+    public void setEvaluator(HandEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+    
+    /**
+     * Packs the ranks of up to the first four cards into an integer, a
+     * byte per card, so event sinks can pass a hand around as one value.
+     * @return Packed ranks or zero if there are no cards
+     */
+    public int pack() {
+        int packed = 0;
+        
+        for(int k=Math.min(size, 4) - 1; k >= 0; k--)
+            packed = (packed << 8) | ranks[k];
+        
+        return packed;
+    }
+    
+    /**
+     * Adds a card to packed ranks.
+     * @param packed Packed ranks
+     * @param rank Rank of the card
+     * @return Packed ranks
+     */
+    public static int pack(int packed, int rank) {
+        int shift = 0;
+        
+        while(shift < 32 && ((packed >>> shift) & 0xff) != 0)
+            shift += 8;
+        
+        return shift < 32 ? packed | (rank << shift) : packed;
+    }
+    
+    /**
+     * Describes packed ranks the way toString does.
+     * @param packed Packed ranks
+     * @return Description
+     */
+    public static String describe(int packed) {
+        if(packed == 0)
+            return "card: NA";
+        
+        if((packed >>> 8) == 0)
+            return "card: "+Card.valueOf(packed);
+        
+        StringBuilder sb = new StringBuilder("cards:");
+        
+        for(; packed != 0; packed >>>= 8)
+            sb.append(' ').append(Card.valueOf(packed & 0xff));
+        
+        return sb.toString();
+    }
+    
+    @Override
+    public String toString() {
+        if(size <= 1)
+            return "card: "+ (size != 0 ? Card.valueOf(ranks[0]) : "NA");
+        
+        StringBuilder sb = new StringBuilder("cards:");
+        
+        for(int k=0; k < size; k++)
+            sb.append(' ').append(Card.valueOf(ranks[k]));
+        
+        return sb.toString();
+    }
+}
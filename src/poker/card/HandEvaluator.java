@@ -0,0 +1,293 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.util.Arrays;
+
+/**
+ * This class ranks hands of a fixed number of cards through a lookup table
+ * built once for a deck and a ranking rule.<p>
+ * A hand is a multiset of ranks. With the ranks as offsets from the lowest
+ * rank in ascending order a0 &le; a1 &le; ... the combinatorial number
+ * system gives each multiset its own index,
+ * C(a0, 1) + C(a1 + 1, 2) + C(a2 + 2, 3) + ..., from zero up to the number
+ * of multisets less one, so the table is a minimal perfect hash. The table
+ * holds the score of each hand, its place among the distinct keys of the
+ * rule, so a bigger score is a better hand and scoring a hand is k lookups
+ * with nothing allocated.<p>
+ * The win table by score treats the opponents' hands as independent draws
+ * from the deck, which ignores the cards in my hand.
+ * @author Ron.Coleman
+ */
+public class HandEvaluator {
+    protected final int minRank;
+    protected final int numRanks;
+    protected final int cards;
+    protected final Ranking ranking;
+
+    // Binomials indexed by n * (cards + 1) + k
+    protected final int[] binoms;
+
+    // Scores indexed by the hand index
+    protected final int[] scores;
+
+    protected final int numScores;
+
+    protected final WinTable winTable;
+
+    /**
+     * Constructor
+     * @param deck Win table of the deck for one card
+     * @param cards Number of cards in a hand
+     * @param ranking Rule for ranking hands
+     */
+    public HandEvaluator(WinTable deck, int cards, Ranking ranking) {
+        this.minRank = deck.getMinRank();
+
+        this.numRanks = deck.getNumRanks();
+
+        this.cards = cards;
+
+        this.ranking = ranking;
+
+        int maxN = numRanks + cards;
+
+        binoms = new int[maxN * (cards + 1)];
+
+        for(int n=0; n < maxN; n++) {
+            binoms[n * (cards + 1)] = 1;
+
+            for(int k=1; k <= Math.min(n, cards); k++)
+                binoms[n * (cards + 1) + k] = binoms[(n-1) * (cards + 1) + k - 1] + (k < n ? binoms[(n-1) * (cards + 1) + k] : 0);
+        }
+
+        int numHands = binoms[(numRanks + cards - 1) * (cards + 1) + cards];
+
+        // Key and number of ways to draw each hand from the deck
+        long[] keys = new long[numHands];
+
+        double[] ways = new double[numHands];
+
+        int[] offsets = new int[cards];
+
+        do {
+            int index = index(offsets);
+
+            keys[index] = ranking.key(offsets, cards, numRanks);
+
+            ways[index] = ways(deck, offsets);
+
+        } while(next(offsets));
+
+        // Scores are the places of the keys among the distinct keys
+        long[] distinct = Arrays.stream(keys).distinct().sorted().toArray();
+
+        numScores = distinct.length;
+
+        scores = new int[numHands];
+
+        double[] weights = new double[numScores];
+
+        for(int index=0; index < numHands; index++) {
+            scores[index] = Arrays.binarySearch(distinct, keys[index]);
+
+            weights[scores[index]] += ways[index];
+        }
+
+        winTable = newWinTable(weights, WinTable.getNumCards(copies(deck)) / cards);
+    }
+
+    /**
+     * Scores a hand.
+     * @param ranks Ranks of the cards in ascending order
+     * @return Score where bigger is better
+     */
+    public int score(int[] ranks) {
+        int index = 0;
+
+        for(int k=0; k < cards; k++)
+            index += binoms[(ranks[k] - minRank + k) * (cards + 1) + k + 1];
+
+        return scores[index];
+    }
+
+    /**
+     * Gets the index of a hand.
+     * @param offsets Ranks less the lowest rank in ascending order
+     * @return Index
+     */
+    protected final int index(int[] offsets) {
+        int index = 0;
+
+        for(int k=0; k < cards; k++)
+            index += binoms[(offsets[k] + k) * (cards + 1) + k + 1];
+
+        return index;
+    }
+
+    /**
+     * Moves to the next hand in ascending order.
+     * @param offsets Ranks less the lowest rank in ascending order
+     * @return False after the last hand
+     */
+    private boolean next(int[] offsets) {
+        int k = cards - 1;
+
+        while(k >= 0 && offsets[k] == numRanks - 1)
+            k--;
+
+        if(k < 0)
+            return false;
+
+        offsets[k]++;
+
+        for(int j=k+1; j < cards; j++)
+            offsets[j] = offsets[k];
+
+        return true;
+    }
+
+    /**
+     * Counts the ways to draw a hand from the deck.
+     * @param deck Win table of the deck
+     * @param offsets Ranks less the lowest rank in ascending order
+     * @return Ways
+     */
+    private double ways(WinTable deck, int[] offsets) {
+        double ways = 1;
+
+        int k = 0;
+
+        while(k < cards) {
+            int run = 1;
+            while(k + run < cards && offsets[k + run] == offsets[k])
+                run++;
+
+            int copies = deck.getCopies(offsets[k] + minRank);
+
+            // C(copies, run)
+            for(int j=0; j < run; j++)
+                ways *= (double) (copies - j) / (j + 1);
+
+            k += run;
+        }
+
+        return Math.max(ways, 0);
+    }
+
+    /**
+     * Gets the copies of each rank of the deck.
+     * @param deck Win table of the deck
+     * @return Copies
+     */
+    private static int[] copies(WinTable deck) {
+        int[] copies = new int[deck.getNumRanks()];
+
+        for(int k=0; k < copies.length; k++)
+            copies[k] = deck.getCopies(deck.getMinRank() + k);
+
+        return copies;
+    }
+
+    /**
+     * Builds the win table by score with the opponents' hands independent.
+     * My score s wins against h-1 opponents if they're all below s or tie,
+     * sharing the pot with the t who tie.
+     * @param weights Ways to draw each score
+     * @param maxHands Largest number of hands the deck can deal
+     * @return Win table
+     */
+    private static WinTable newWinTable(double[] weights, int maxHands) {
+        int numScores = weights.length;
+
+        double total = 0;
+        for(double weight: weights)
+            total += weight;
+
+        double[] probs = new double[(maxHands + 1) * numScores];
+
+        double below = 0;
+
+        for(int s=0; s < numScores; s++) {
+            double lose = below / total;
+
+            double tie = weights[s] / total;
+
+            probs[s] = 1.0;
+
+            for(int hands=1; hands <= maxHands; hands++) {
+                int opponents = hands - 1;
+
+                double wp = 0;
+
+                // C(opponents, t) as t goes up
+                double choose = 1;
+
+                for(int t=0; t <= opponents; t++) {
+                    wp += choose * Math.pow(tie, t) * Math.pow(lose, opponents - t) / (t + 1);
+
+                    choose = choose * (opponents - t) / (t + 1);
+                }
+
+                probs[hands * numScores + s] = wp;
+            }
+
+            below += weights[s];
+        }
+
+        int[] ways = new int[numScores];
+        for(int s=0; s < numScores; s++)
+            ways[s] = (int) weights[s];
+
+        return new WinTable(0, ways, maxHands, probs);
+    }
+
+    /**
+     * Gets the number of cards in a hand.
+     * @return Integer
+     */
+    public int getCards() {
+        return cards;
+    }
+
+    /**
+     * Gets the ranking rule.
+     * @return Ranking
+     */
+    public Ranking getRanking() {
+        return ranking;
+    }
+
+    /**
+     * Gets the number of distinct scores.
+     * @return Integer
+     */
+    public int getNumScores() {
+        return numScores;
+    }
+
+    /**
+     * Gets the win probabilities by score.
+     * @return Win table
+     */
+    public WinTable getWinTable() {
+        return winTable;
+    }
+}
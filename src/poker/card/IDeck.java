@@ -1,37 +1,75 @@
-/*
- Copyright (c) 2015 Ron Coleman
- Permission is hereby granted, free of charge, to any person obtaining
- a copy of this software and associated documentation files (the
- "Software"), to deal in the Software without restriction, including
- without limitation the rights to use, copy, modify, merge, publish,
- distribute, sublicense, and/or sell copies of the Software, and to
- permit persons to whom the Software is furnished to do so, subject to
- the following conditions:
- The above copyright notice and this permission notice shall be
- included in all copies or substantial portions of the Software.
- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
- EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
- MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
- NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
- LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
- OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
- WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
- */
-package poker.card;
-
-/**
- * Interface decks implement.
- * @author Ron.Coleman
- */
-public interface IDeck {
-    /**
-     * Shuffles the deck.
-     */
-    public void shuffle();
-    
-    /**
-     * Deals a card.
-     * @return Card
-     */
-    public Card deal();
-}
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.util.SplittableRandom;
+
+/**
+ * Interface decks implement.
+ * @author Ron.Coleman
+ */
+public interface IDeck {
+    /**
+     * Shuffles the deck.
+     */
+    public void shuffle();
+    
+    /**
+     * Deals a card.
+     * @return Card
+     */
+    public Card deal();
+    
+    /**
+     * Deals a card as its rank without going through a Card object.
+     * @return Rank
+     */
+    default public int dealRank() {
+        return deal().getRank();
+    }
+    
+    /**
+     * Seeds the shuffle so tables get independent, reproducible orderings.
+     * Does nothing by default.
+     * @param seed Seed
+     */
+    default public void seed(long seed) {
+        
+    }
+    
+    /**
+     * Splits off a random stream for a player at the table, so a seeded
+     * deck also reproduces the players' choices. By default the stream is
+     * not seeded.
+     * @return Random stream
+     */
+    default public SplittableRandom split() {
+        return new SplittableRandom();
+    }
+    
+    /**
+     * Gets the win probabilities for the cards in this deck. By default
+     * the deck is the standard one card per rank 2-Ace.
+     * @return Win table
+     */
+    default public WinTable getWinTable() {
+        return WinTable.getStandard();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+/**
+ * This class represents the rules for ranking hands of more than one card.
+ * Each rule turns a hand into a key where a bigger key is a better hand
+ * and equal keys split the pot.
+ * @author Ron.Coleman
+ */
+public enum Ranking {
+    /**
+     * Highest card wins, then the next highest, and so on.
+     */
+    HIGH {
+        @Override
+        public long key(int[] offsets, int cards, int numRanks) {
+            long key = 0;
+
+            for(int k=cards-1; k >= 0; k--)
+                key = key * numRanks + offsets[k];
+
+            return key;
+        }
+    },
+
+    /**
+     * Most cards of a kind wins, e.g., a pair beats no pair, with ties
+     * going to the higher kind and then the higher cards left over.
+     */
+    PAIRS {
+        @Override
+        public long key(int[] offsets, int cards, int numRanks) {
+            // Digits of (count, rank) from the biggest group down, each
+            // digit in base (cards + 1) * numRanks
+            long base = (long) (cards + 1) * numRanks;
+
+            long key = 0;
+
+            int digits = 0;
+
+            for(int count=cards; count >= 1; count--) {
+                int k = cards - 1;
+
+                while(k >= 0) {
+                    int rank = offsets[k];
+
+                    int run = 1;
+                    while(k - run >= 0 && offsets[k - run] == rank)
+                        run++;
+
+                    if(run == count) {
+                        key = key * base + count * numRanks + rank;
+                        digits++;
+                    }
+
+                    k -= run;
+                }
+            }
+
+            // Pad so hands with fewer groups compare digit by digit
+            for(; digits < cards; digits++)
+                key *= base;
+
+            return key;
+        }
+    },
+
+    /**
+     * Biggest sum of the ranks wins.
+     */
+    SUM {
+        @Override
+        public long key(int[] offsets, int cards, int numRanks) {
+            long key = 0;
+
+            for(int k=0; k < cards; k++)
+                key += offsets[k];
+
+            return key;
+        }
+    };
+
+    /**
+     * Gets the key of a hand.
+     * @param offsets Ranks less the lowest rank in ascending order
+     * @param cards Number of cards
+     * @param numRanks Number of ranks
+     * @return Key
+     */
+    public abstract long key(int[] offsets, int cards, int numRanks);
+}
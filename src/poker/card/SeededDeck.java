@@ -0,0 +1,69 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a deck with its own long-lived random stream.<p>
+ * The deck shuffles in place with Fisher-Yates from a SplittableRandom
+ * so a seed reproduces a whole run and tables seeded from a split stream
+ * get independent orderings.
+ * @author Ron.Coleman
+ */
+public class SeededDeck extends Deck {
+    protected SplittableRandom stream = new SplittableRandom();
+
+    /**
+     * Shuffles the deck.
+     */
+    @Override
+    public void shuffle() {
+        nextIndex = 0;
+
+        for(int i=ranks.length - 1; i > 0; i--) {
+            int j = stream.nextInt(i + 1);
+
+            int rank = ranks[i];
+
+            ranks[i] = ranks[j];
+
+            ranks[j] = rank;
+        }
+    }
+
+    /**
+     * Seeds the shuffle.
+     * @param seed Seed
+     */
+    @Override
+    public void seed(long seed) {
+        stream = new SplittableRandom(seed);
+    }
+
+    /**
+     * Splits off a random stream from the shuffle's.
+     * @return Random stream
+     */
+    @Override
+    public SplittableRandom split() {
+        return stream.split();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a shoe of one or more decks with any number of
+ * cards of each rank.<p>
+ * The cards sit shuffled in a primitive buffer and are dealt in order.
+ * The shoe is reshuffled only once the deal passes the cut card at the
+ * penetration point, not every game. In the rare case it runs out in the
+ * middle of a game, only the discards of earlier games are shuffled back
+ * in, so no card still in play can be dealt again.
+ * @author Ron.Coleman
+ */
+public class Shoe implements IDeck {
+    /** Lowest rank */
+    public final static int MIN_RANK = 2;
+
+    /** Default fraction of the shoe dealt before reshuffling */
+    public final static double PENETRATION = 0.75;
+
+    protected final int[] ranks;
+    protected final int cut;
+    protected int nextIndex;
+
+    // First card of the current game and end of the cards left to deal
+    protected int start;
+    protected int end;
+    protected SplittableRandom stream = new SplittableRandom();
+    protected final WinTable winTable;
+
+    /**
+     * Constructor of the standard deck of one card per rank 2-Ace.
+     */
+    public Shoe() {
+        this(1, WinTable.STANDARD_COPIES, PENETRATION);
+    }
+
+    /**
+     * Constructor
+     * @param decks Number of decks
+     * @param copies Number of cards of each rank in a deck from 2 up
+     * @param penetration Fraction of the shoe dealt before reshuffling
+     */
+    public Shoe(int decks, int[] copies, double penetration) {
+        int[] shoeCopies = new int[copies.length];
+        for(int k=0; k < copies.length; k++)
+            shoeCopies[k] = decks * copies[k];
+
+        ranks = new int[WinTable.getNumCards(shoeCopies)];
+
+        int size = 0;
+        for(int k=0; k < shoeCopies.length; k++)
+            for(int n=0; n < shoeCopies[k]; n++)
+                ranks[size++] = MIN_RANK + k;
+
+        cut = (int) Math.round(ranks.length * Math.max(0, Math.min(penetration, 1)));
+
+        winTable = WinTableCache.get(MIN_RANK, shoeCopies, ranks.length);
+
+        // Start past the cut card so the first game shuffles
+        nextIndex = end = start = ranks.length;
+    }
+
+    /**
+     * Starts a game, shuffling the shoe if the deal has passed the cut card
+     * or the last game ran out.
+     */
+    @Override
+    public void shuffle() {
+        if(nextIndex >= cut || end < ranks.length)
+            reshuffle(ranks.length);
+
+        start = nextIndex;
+    }
+
+    /**
+     * Shuffles the first cards of the shoe with Fisher-Yates and deals
+     * from them.
+     * @param size Number of cards to shuffle
+     */
+    protected void reshuffle(int size) {
+        nextIndex = 0;
+
+        end = size;
+
+        for(int i=size - 1; i > 0; i--) {
+            int j = stream.nextInt(i + 1);
+
+            int rank = ranks[i];
+
+            ranks[i] = ranks[j];
+
+            ranks[j] = rank;
+        }
+    }
+
+    /**
+     * Seeds the shuffle and starts over with a fresh shoe.
+     * @param seed Seed
+     */
+    @Override
+    public void seed(long seed) {
+        stream = new SplittableRandom(seed);
+
+        Arrays.sort(ranks);
+
+        nextIndex = end = start = ranks.length;
+    }
+
+    /**
+     * Splits off a random stream from the shuffle's.
+     * @return Random stream
+     */
+    @Override
+    public SplittableRandom split() {
+        return stream.split();
+    }
+
+    /**
+     * Deals one card.
+     * @return Card
+     */
+    @Override
+    public Card deal() {
+        return Card.valueOf(dealRank());
+    }
+
+    /**
+     * Deals one card as its rank.
+     * @return Rank
+     */
+    @Override
+    public int dealRank() {
+        if(nextIndex == end) {
+            // The cards of this game from start on stay where they are
+            if(start == 0)
+                throw new IllegalStateException("shoe of "+ranks.length+" cards ran out in one game");
+
+            reshuffle(start);
+
+            start = 0;
+        }
+
+        return ranks[nextIndex++];
+    }
+
+    /**
+     * Gets the win probabilities for a full shoe.
+     * @return Win table
+     */
+    @Override
+    public WinTable getWinTable() {
+        return winTable;
+    }
+
+    /**
+     * Gets the number of cards in the shoe.
+     * @return Integer
+     */
+    public int size() {
+        return ranks.length;
+    }
+
+    /**
+     * Gets the number of cards dealt since the last shuffle. After a
+     * shuffle in the middle of a game, that's from the discards only.
+     * @return Integer
+     */
+    public int getDealt() {
+        return nextIndex;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+/**
+ * This class holds the exact win probabilities for every rank and number
+ * of hands in a flat table.<p>
+ * My card loses to a higher card and splits the pot with equal cards, so
+ * if there are L lower cards and T other cards of my rank among the N-1
+ * cards I can't see, the chance that k = hands-1 opponents draw t of my
+ * rank and the rest lower is C(T,t) C(L,k-t) / C(N-1,k) and I get 1/(t+1)
+ * of the pot. The win probability is the sum over t.<p>
+ * Tables are normally gotten through WinTableCache which keeps them on
+ * disk.
+ * @author Ron.Coleman
+ */
+public class WinTable {
+    /** Lowest rank of the standard deck */
+    public final static int STANDARD_MIN_RANK = 2;
+
+    /** Copies of each rank in the standard deck of one card per rank 2-Ace */
+    public final static int[] STANDARD_COPIES = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+
+    /** Lowest rank */
+    protected final int minRank;
+
+    /** Number of cards of each rank starting from the lowest */
+    protected final int[] copies;
+
+    /** Number of ranks from the lowest to the highest */
+    protected final int numRanks;
+
+    /** Largest number of hands, at most the number of cards in the deck */
+    protected final int maxHands;
+
+    /** Win probabilities indexed by hands * numRanks + rank - minRank */
+    protected final double[] probs;
+
+    /**
+     * Constructor
+     * @param minRank Lowest rank
+     * @param copies Number of cards of each rank starting from the lowest
+     */
+    public WinTable(int minRank, int[] copies) {
+        this(minRank, copies, getNumCards(copies));
+    }
+
+    /**
+     * Constructor
+     * @param minRank Lowest rank
+     * @param copies Number of cards of each rank starting from the lowest
+     * @param maxHands Largest number of hands, e.g., the number of seats
+     */
+    public WinTable(int minRank, int[] copies, int maxHands) {
+        this.minRank = minRank;
+
+        this.copies = copies.clone();
+
+        this.numRanks = copies.length;
+
+        int numCards = getNumCards(copies);
+
+        this.maxHands = Math.min(maxHands, numCards);
+
+        this.probs = new double[(this.maxHands + 1) * numRanks];
+
+        // Log factorials so big decks don't overflow the binomials
+        double[] logFacts = new double[numCards + 1];
+        for(int n=1; n <= numCards; n++)
+            logFacts[n] = logFacts[n-1] + Math.log(n);
+
+        int lower = 0;
+
+        for(int r=0; r < numRanks; r++) {
+            int ties = Math.max(copies[r] - 1, 0);
+
+            // Zero and one hand can't lose
+            probs[r] = 1.0;
+            probs[numRanks + r] = 1.0;
+
+            for(int hands=2; hands <= this.maxHands; hands++) {
+                int opponents = hands - 1;
+
+                double wp = 0;
+
+                for(int t=0; t <= Math.min(ties, opponents); t++) {
+                    if(opponents - t > lower)
+                        continue;
+
+                    double logWays = logChoose(logFacts, ties, t)
+                            + logChoose(logFacts, lower, opponents - t)
+                            - logChoose(logFacts, numCards - 1, opponents);
+
+                    wp += Math.exp(logWays) / (t + 1);
+                }
+
+                probs[hands * numRanks + r] = wp;
+            }
+
+            lower += copies[r];
+        }
+    }
+
+    /**
+     * Constructor of a table already computed.
+     * @param minRank Lowest rank
+     * @param copies Number of cards of each rank starting from the lowest
+     * @param maxHands Largest number of hands
+     * @param probs Win probabilities indexed by hands * numRanks + rank - minRank
+     */
+    protected WinTable(int minRank, int[] copies, int maxHands, double[] probs) {
+        this.minRank = minRank;
+
+        this.copies = copies.clone();
+
+        this.numRanks = copies.length;
+
+        this.maxHands = maxHands;
+
+        this.probs = probs;
+    }
+
+    /**
+     * Gets the table for the standard deck of one card per rank 2-Ace.
+     * @return Win table
+     */
+    public static WinTable getStandard() {
+        return Standard.TABLE;
+    }
+
+    /**
+     * Counts the cards in a deck.
+     * @param copies Number of cards of each rank
+     * @return Number of cards
+     */
+    public static int getNumCards(int[] copies) {
+        int numCards = 0;
+
+        for(int count: copies)
+            numCards += count;
+
+        return numCards;
+    }
+
+    /**
+     * Calculates log C(n,k).
+     * @param logFacts Log factorials
+     * @param n Items
+     * @param k Items chosen
+     * @return Log of binomial coefficient
+     */
+    private static double logChoose(double[] logFacts, int n, int k) {
+        return logFacts[n] - logFacts[k] - logFacts[n - k];
+    }
+
+    /**
+     * Gets the win probability.
+     * @param numHands Number of hands 0 to the number of cards in the deck
+     * @param rank Card rank
+     * @return Probability
+     */
+    public double get(int numHands, int rank) {
+        return probs[numHands * numRanks + rank - minRank];
+    }
+
+    /**
+     * Gets the lowest rank.
+     * @return Rank
+     */
+    public int getMinRank() {
+        return minRank;
+    }
+
+    /**
+     * Gets the number of ranks.
+     * @return Integer
+     */
+    public int getNumRanks() {
+        return numRanks;
+    }
+
+    /**
+     * Gets the largest number of hands in the table.
+     * @return Integer
+     */
+    public int getMaxHands() {
+        return maxHands;
+    }
+
+    /**
+     * Gets the number of cards of a rank.
+     * @param rank Rank
+     * @return Copies
+     */
+    public int getCopies(int rank) {
+        return copies[rank - minRank];
+    }
+
+    /**
+     * Gets the number of cards of each rank starting from the lowest.
+     * @return Copies
+     */
+    public int[] getCopies() {
+        return copies.clone();
+    }
+
+    // Loads the standard table the first time it's needed
+    private static class Standard {
+        private final static WinTable TABLE = WinTableCache.get(STANDARD_MIN_RANK, STANDARD_COPIES, getNumCards(STANDARD_COPIES));
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.card;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class caches the win tables in memory and on disk.<p>
+ * A table is keyed by its deck, i.e., the lowest rank and the copies of
+ * each rank, and the largest number of hands. The first time a key is
+ * asked for, the cache maps the table's file, if there is one, and
+ * otherwise computes the table and writes the file for next time. The
+ * files go in the directory of the poker.tables system property, by
+ * default "tables".<p>
+ * Usage: WinTableCache minRank copies maxHands, e.g., 2 1,1,1,1,1,1,1,1,1,1 10
+ * writes a table ahead of time.
+ * <pre>
+ * file (big-endian)
+ *   int    MAGIC
+ *   short  VERSION
+ *   int    lowest rank
+ *   int    number of ranks, n
+ *   int[n] copies of each rank
+ *   int    largest number of hands, h
+ *   double[(h+1)*n] win probabilities
+ * </pre>
+ * @author Ron.Coleman
+ */
+public class WinTableCache {
+    /** Magic number, "PKWT" */
+    public final static int MAGIC = 0x504b5754;
+
+    /** Format version */
+    public final static short VERSION = 1;
+
+    /** Directory of the table files */
+    public final static String DIR = System.getProperty("poker.tables", "tables");
+
+    // Tables loaded so far by key
+    private final static ConcurrentHashMap<String, WinTable> tables = new ConcurrentHashMap<>();
+
+    // Launch point for the generator
+    public static void main(String[] args) {
+        if(args.length < 3) {
+            System.err.println("usage: WinTableCache minRank copies maxHands");
+            System.exit(1);
+        }
+
+        int minRank = Integer.parseInt(args[0]);
+
+        int[] copies = Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray();
+
+        int maxHands = Integer.parseInt(args[2]);
+
+        WinTable table = new WinTable(minRank, copies, maxHands);
+
+        File file = getFile(minRank, copies, table.getMaxHands());
+
+        try {
+            write(table, file);
+
+            System.out.println("wrote "+file);
+
+        } catch (IOException ex) {
+            Logger.getLogger(WinTableCache.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Gets a table from memory, from its file, or by computing it.
+     * @param minRank Lowest rank
+     * @param copies Number of cards of each rank starting from the lowest
+     * @param maxHands Largest number of hands
+     * @return Win table
+     */
+    public static WinTable get(int minRank, int[] copies, int maxHands) {
+        int hands = Math.min(maxHands, WinTable.getNumCards(copies));
+
+        String key = minRank+":"+Arrays.toString(copies)+":"+hands;
+
+        return tables.computeIfAbsent(key, (k) -> load(minRank, copies, hands));
+    }
+
+    /**
+     * Loads a table from its file or else computes and persists it.
+     * @param minRank Lowest rank
+     * @param copies Number of cards of each rank starting from the lowest
+     * @param maxHands Largest number of hands
+     * @return Win table
+     */
+    protected static WinTable load(int minRank, int[] copies, int maxHands) {
+        File file = getFile(minRank, copies, maxHands);
+
+        if(file.exists()) {
+            try {
+                WinTable table = read(file, minRank, copies, maxHands);
+
+                if(table != null)
+                    return table;
+
+            } catch (IOException | BufferUnderflowException ex) {
+                Logger.getLogger(WinTableCache.class.getName()).log(Level.WARNING, null, ex);
+            }
+        }
+
+        WinTable table = new WinTable(minRank, copies, maxHands);
+
+        try {
+            write(table, file);
+
+        } catch (IOException ex) {
+            // We still have the table, just not for next time
+            Logger.getLogger(WinTableCache.class.getName()).log(Level.WARNING, null, ex);
+        }
+
+        return table;
+    }
+
+    /**
+     * Gets the file of a table.
+     * @param minRank Lowest rank
+     * @param copies Number of cards of each rank starting from the lowest
+     * @param maxHands Largest number of hands
+     * @return File
+     */
+    public static File getFile(int minRank, int[] copies, int maxHands) {
+        int hash = 31 * (31 * minRank + Arrays.hashCode(copies)) + maxHands;
+
+        return new File(DIR, String.format("wintable-%08x.bin", hash));
+    }
+
+    /**
+     * Reads a table by mapping its file.
+     * @param file File
+     * @param minRank Lowest rank expected
+     * @param copies Copies expected
+     * @param maxHands Largest number of hands expected
+     * @return Win table or null if the file is for some other table
+     * @throws IOException
+     */
+    protected static WinTable read(File file, int minRank, int[] copies, int maxHands) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+
+        if(buffer.getInt() != MAGIC || buffer.getShort() != VERSION)
+            return null;
+
+        // The file name is a hash so check the whole key
+        if(buffer.getInt() != minRank || buffer.getInt() != copies.length)
+            return null;
+
+        for(int count: copies)
+            if(buffer.getInt() != count)
+                return null;
+
+        if(buffer.getInt() != maxHands)
+            return null;
+
+        double[] probs = new double[(maxHands + 1) * copies.length];
+
+        if(buffer.remaining() != probs.length * Double.BYTES)
+            return null;
+
+        buffer.asDoubleBuffer().get(probs);
+
+        return new WinTable(minRank, copies, maxHands, probs);
+    }
+
+    /**
+     * Writes a table to a temporary file and moves it into place so readers
+     * never see part of a table.
+     * @param table Win table
+     * @param file File
+     * @throws IOException
+     */
+    protected static void write(WinTable table, File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+
+        dir.mkdirs();
+
+        File temp = File.createTempFile("wintable", ".tmp", dir);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(table.minRank);
+            out.writeInt(table.numRanks);
+
+            for(int count: table.copies)
+                out.writeInt(count);
+
+            out.writeInt(table.maxHands);
+
+            for(double prob: table.probs)
+                out.writeDouble(prob);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException ex) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
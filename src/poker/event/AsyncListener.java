@@ -0,0 +1,311 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.event;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import poker.GameEngine;
+import poker.card.Hand;
+import poker.player.AbstractPlayer;
+import poker.util.Action;
+import poker.util.Helper;
+
+/**
+ * This class implements a sink that writes the console text, including
+ * every action, on its own thread.<p>
+ * The table only copies each event into a preallocated ring of ints and
+ * moves on. A writer thread drains whatever is in the ring, formats it,
+ * and writes it as one batch. If the writer falls a full ring behind, the
+ * table waits for it. There is one ring per table, i.e., one producer.
+ * @author Ron.Coleman
+ */
+public class AsyncListener implements GameEventListener {
+    /** Number of events the ring holds, a power of two */
+    public final static int CAPACITY = 1 << 14;
+
+    // Event types
+    protected final static int GAME = 0;
+    protected final static int ROUND = 1;
+    protected final static int ACTION = 2;
+    protected final static int SHOWDOWN = 3;
+    protected final static int LOST = 4;
+    protected final static int OVER = 5;
+
+    // Ints per event: type, seat, value, amount
+    private final static int STRIDE = 4;
+
+    // How long the writer sleeps when the ring is empty
+    private final static long IDLE_NANOS = 1000000;
+
+    // Actions by ordinal without cloning values() on every event
+    private final static Action[] ACTIONS = Action.values();
+
+    protected final int[] ring = new int[CAPACITY * STRIDE];
+
+    // Next event the table writes and next event the writer reads
+    protected final AtomicLong head = new AtomicLong();
+    protected final AtomicLong tail = new AtomicLong();
+
+    // Player names by seat, filled in by the table before it publishes
+    protected String[] names = new String[8];
+
+    // Seats paid from a pot so far this game, kept on the table's side
+    protected boolean[] paid = new boolean[8];
+
+    protected final Writer writer;
+    protected final Boolean closeWriter;
+    protected final Thread drainer;
+    protected volatile boolean closed = false;
+
+    /**
+     * Constructor writes to standard output.
+     */
+    public AsyncListener() {
+        this(new OutputStreamWriter(System.out), false);
+    }
+
+    /**
+     * Constructor writes to a file.
+     * @param path File path
+     * @throws IOException
+     */
+    public AsyncListener(String path) throws IOException {
+        this(new FileWriter(path), true);
+    }
+
+    /**
+     * Constructor
+     * @param writer Writer
+     * @param closeWriter Set to true to close the writer on close
+     */
+    public AsyncListener(Writer writer, Boolean closeWriter) {
+        this.writer = writer;
+
+        this.closeWriter = closeWriter;
+
+        this.drainer = new Thread(() -> drain(), "AsyncListener");
+
+        this.drainer.setDaemon(true);
+
+        this.drainer.start();
+    }
+
+    @Override
+    public void gameStarted(GameEngine table, int game) {
+        publish(GAME, 0, game, 0);
+    }
+
+    @Override
+    public void roundStarted(GameEngine table, int round) {
+        publish(ROUND, 0, round, 0);
+    }
+
+    @Override
+    public void acted(GameEngine table, AbstractPlayer player, Action action, int amount) {
+        publish(ACTION, seat(player), action.ordinal(), rank(player));
+    }
+
+    @Override
+    public void showdown(GameEngine table, AbstractPlayer winner, int pot) {
+        int seat = seat(winner);
+
+        publish(SHOWDOWN, seat, rank(winner), pot);
+
+        paid[seat] = true;
+    }
+
+    @Override
+    public void gameEnded(GameEngine table, int game) {
+        publish(OVER, 0, game, 0);
+
+        for(AbstractPlayer player: table.getPlayers()) {
+            int seat = seat(player);
+
+            if(!paid[seat])
+                publish(LOST, seat, rank(player), 0);
+
+            paid[seat] = false;
+        }
+    }
+
+    /**
+     * Waits for the writer to drain the ring, then flushes.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        LockSupport.unpark(drainer);
+
+        try {
+            drainer.join();
+
+            if(closeWriter)
+                writer.close();
+            else
+                writer.flush();
+
+        } catch (InterruptedException | IOException ex) {
+            Logger.getLogger(AsyncListener.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Copies an event into the ring.
+     * @param type Event type
+     * @param seat Seat
+     * @param value Game, round, action, or rank
+     * @param amount Rank or pot
+     */
+    protected void publish(int type, int seat, int value, int amount) {
+        long next = head.get();
+
+        // Wait for the writer if it's a full ring behind
+        while(next - tail.get() >= CAPACITY)
+            Thread.yield();
+
+        int k = (int) (next & (CAPACITY - 1)) * STRIDE;
+
+        ring[k] = type;
+        ring[k+1] = seat;
+        ring[k+2] = value;
+        ring[k+3] = amount;
+
+        head.lazySet(next + 1);
+    }
+
+    /**
+     * Gets the player's seat, recording the player's name the first time.
+     * @param player Player
+     * @return Seat
+     */
+    protected int seat(AbstractPlayer player) {
+        int seat = player.getSeat();
+
+        if(seat >= names.length) {
+            names = Arrays.copyOf(names, Math.max(seat + 1, names.length * 2));
+
+            paid = Arrays.copyOf(paid, names.length);
+        }
+
+        if(names[seat] == null)
+            names[seat] = player.toString();
+
+        return seat;
+    }
+
+    /**
+     * Gets the ranks of the player's cards.
+     * @param player Player
+     * @return Packed ranks or zero if player was not dealt in
+     */
+    protected int rank(AbstractPlayer player) {
+        return player.getHand().pack();
+    }
+
+    /**
+     * Formats and writes events in batches until closed and empty.
+     */
+    protected void drain() {
+        StringBuilder sb = new StringBuilder();
+
+        long next = tail.get();
+
+        while(true) {
+            // Read the flag first so nothing published before close is missed
+            boolean done = closed;
+
+            long last = head.get();
+
+            if(next == last) {
+                if(done)
+                    return;
+
+                LockSupport.parkNanos(IDLE_NANOS);
+
+                continue;
+            }
+
+            for(; next < last; next++) {
+                int k = (int) (next & (CAPACITY - 1)) * STRIDE;
+
+                int type = ring[k];
+                String name = names[ring[k+1]];
+                int value = ring[k+2];
+                int amount = ring[k+3];
+
+                switch(type) {
+                    case GAME:
+                        sb.append(">>>> GAME ").append(value).append(" STARTING\n");
+                        break;
+                    case ROUND:
+                        sb.append("++++ ROUND ").append(value).append('\n');
+                        break;
+                    case ACTION:
+                        Action action = ACTIONS[value];
+                        sb.append(name).append(' ').append(Helper.getGrammatical(action));
+                        if(action == Action.FOLD)
+                            sb.append(" with ").append(hand(amount));
+                        sb.append(".\n");
+                        break;
+                    case SHOWDOWN:
+                        sb.append(name).append(" wins ").append(amount).append(" with ").append(hand(value)).append('\n');
+                        break;
+                    case OVER:
+                        sb.append(">>>> GAME ").append(value).append(" OVER\n");
+                        break;
+                    case LOST:
+                        sb.append(name).append(" LOST with ").append(hand(value)).append('\n');
+                        break;
+                }
+            }
+
+            // Free the slots only after the batch is formatted
+            tail.lazySet(next);
+
+            try {
+                writer.append(sb);
+
+                writer.flush();
+
+            } catch (IOException ex) {
+                Logger.getLogger(AsyncListener.class.getName()).log(Level.SEVERE, null, ex);
+            }
+
+            sb.setLength(0);
+        }
+    }
+
+    /**
+     * Describes a hand the way Hand does.
+     * @param packed Packed ranks or zero if not dealt in
+     * @return Description
+     */
+    protected static String hand(int packed) {
+        return Hand.describe(packed);
+    }
+}
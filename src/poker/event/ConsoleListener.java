@@ -0,0 +1,109 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.event;
+
+import java.util.ArrayList;
+import poker.GameEngine;
+import poker.player.AbstractPlayer;
+import poker.util.Action;
+import poker.util.Helper;
+
+/**
+ * This class implements the console sink which writes the game's progress
+ * to standard output.
+ * @author Ron.Coleman
+ */
+public class ConsoleListener implements GameEventListener {
+    // Set to true to also report every action
+    protected final Boolean showActions;
+
+    // Players paid from a pot so far this game
+    protected final ArrayList<AbstractPlayer> winners = new ArrayList<>();
+
+    /**
+     * Constructor
+     */
+    public ConsoleListener() {
+        this(false);
+    }
+
+    /**
+     * Constructor
+     * @param showActions Set to true to also report every action
+     */
+    public ConsoleListener(Boolean showActions) {
+        this.showActions = showActions;
+    }
+
+    @Override
+    public void gameStarted(GameEngine table, int game) {
+        System.out.println(">>>> GAME "+game+" STARTING");
+    }
+
+    @Override
+    public void roundStarted(GameEngine table, int round) {
+        System.out.println("++++ ROUND "+round);
+    }
+
+    @Override
+    public void acted(GameEngine table, AbstractPlayer player, Action action, int amount) {
+        if(showActions)
+            System.out.println(describe(player, action));
+    }
+
+    @Override
+    public void shown(GameEngine table, AbstractPlayer watcher, AbstractPlayer player, Action action) {
+        // Already shown if every action is
+        if(!showActions)
+            System.out.println(describe(player, action));
+    }
+
+    @Override
+    public void showdown(GameEngine table, AbstractPlayer winner, int pot) {
+        System.out.println(winner+" wins "+pot+" with "+winner.getHand());
+
+        winners.add(winner);
+    }
+
+    @Override
+    public void gameEnded(GameEngine table, int game) {
+        System.out.println(">>>> GAME "+game+" OVER");
+        table.getPlayers().stream().filter((player) -> (!winners.contains(player))).forEach((player) -> {
+            System.out.println(player+" LOST with "+player.getHand());
+        });
+
+        winners.clear();
+    }
+
+    /**
+     * Describes what a player did.
+     * @param player Player
+     * @param action Action
+     * @return Description
+     */
+    public static String describe(AbstractPlayer player, Action action) {
+        String description = player+" "+Helper.getGrammatical(action);
+
+        if(action == Action.FOLD)
+            return description+" with "+player.getHand()+".";
+
+        return description+".";
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.event;
+
+import poker.GameEngine;
+import poker.player.AbstractPlayer;
+import poker.util.Action;
+
+/**
+ * Interface game event sinks implement.<p>
+ * A table reports each event to its listener as it happens on the table's
+ * own thread. Every event does nothing by default so sinks override only
+ * what they need.
+ * @author Ron.Coleman
+ */
+public interface GameEventListener {
+    /**
+     * Invoked when a game starts after the antes are in.
+     * @param table Table
+     * @param game Game number
+     */
+    default public void gameStarted(GameEngine table, int game) {
+
+    }
+
+    /**
+     * Invoked after a game starts for each player dealt in.
+     * @param table Table
+     * @param player Player
+     * @param rank Rank of the card dealt
+     */
+    default public void dealt(GameEngine table, AbstractPlayer player, int rank) {
+
+    }
+
+    /**
+     * Invoked when a betting round starts.
+     * @param table Table
+     * @param round Round number
+     */
+    default public void roundStarted(GameEngine table, int round) {
+
+    }
+
+    /**
+     * Invoked when a player acts (CHECK, RAISE, or FOLD) before the chips,
+     * if any, go in the pot.
+     * @param table Table
+     * @param player Player
+     * @param action Action
+     * @param amount Chips the action puts in the pot
+     */
+    default public void acted(GameEngine table, AbstractPlayer player, Action action, int amount) {
+
+    }
+
+    /**
+     * Invoked when a player who watches the others, e.g., a human or an
+     * observer, is told of an action so the sink can show it to them. It
+     * comes in the batch published before the watcher decides, after the
+     * action was reported by acted().
+     * @param table Table
+     * @param watcher Player told of the action
+     * @param player Player who acted
+     * @param action Action
+     */
+    default public void shown(GameEngine table, AbstractPlayer watcher, AbstractPlayer player, Action action) {
+
+    }
+
+    /**
+     * Invoked when the winner has taken the pot, or once for each winner
+     * with its share when a tie splits the pot.
+     * @param table Table
+     * @param winner Winning player
+     * @param pot Chips won
+     */
+    default public void showdown(GameEngine table, AbstractPlayer winner, int pot) {
+
+    }
+
+    /**
+     * Invoked when a game is over after every pot is paid and the busted
+     * players are reported.
+     * @param table Table
+     * @param game Game number
+     */
+    default public void gameEnded(GameEngine table, int game) {
+
+    }
+
+    /**
+     * Invoked when a player dealt into a game has no chips left after it.
+     * @param table Table
+     * @param player Player
+     */
+    default public void busted(GameEngine table, AbstractPlayer player) {
+
+    }
+
+    /**
+     * Flushes and releases anything the sink holds.
+     */
+    default public void close() {
+
+    }
+}
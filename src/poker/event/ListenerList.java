@@ -0,0 +1,94 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.event;
+
+import poker.GameEngine;
+import poker.player.AbstractPlayer;
+import poker.util.Action;
+
+/**
+ * This class fans every event out to several sinks in order.
+ * @author Ron.Coleman
+ */
+public class ListenerList implements GameEventListener {
+    protected final GameEventListener[] listeners;
+
+    /**
+     * Constructor
+     * @param listeners Sinks
+     */
+    public ListenerList(GameEventListener... listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void gameStarted(GameEngine table, int game) {
+        for(GameEventListener listener: listeners)
+            listener.gameStarted(table, game);
+    }
+
+    @Override
+    public void dealt(GameEngine table, AbstractPlayer player, int rank) {
+        for(GameEventListener listener: listeners)
+            listener.dealt(table, player, rank);
+    }
+
+    @Override
+    public void roundStarted(GameEngine table, int round) {
+        for(GameEventListener listener: listeners)
+            listener.roundStarted(table, round);
+    }
+
+    @Override
+    public void acted(GameEngine table, AbstractPlayer player, Action action, int amount) {
+        for(GameEventListener listener: listeners)
+            listener.acted(table, player, action, amount);
+    }
+
+    @Override
+    public void shown(GameEngine table, AbstractPlayer watcher, AbstractPlayer player, Action action) {
+        for(GameEventListener listener: listeners)
+            listener.shown(table, watcher, player, action);
+    }
+
+    @Override
+    public void showdown(GameEngine table, AbstractPlayer winner, int pot) {
+        for(GameEventListener listener: listeners)
+            listener.showdown(table, winner, pot);
+    }
+
+    @Override
+    public void busted(GameEngine table, AbstractPlayer player) {
+        for(GameEventListener listener: listeners)
+            listener.busted(table, player);
+    }
+
+    @Override
+    public void gameEnded(GameEngine table, int game) {
+        for(GameEventListener listener: listeners)
+            listener.gameEnded(table, game);
+    }
+
+    @Override
+    public void close() {
+        for(GameEventListener listener: listeners)
+            listener.close();
+    }
+}
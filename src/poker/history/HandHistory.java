@@ -0,0 +1,89 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.history;
+
+/**
+ * This class defines the binary hand history format.<p>
+ * A history is a series of segment files, base.000, base.001, and so on.
+ * Each segment starts with a fixed header followed by fixed-width records
+ * in little-endian order:
+ * <pre>
+ * header (32 bytes)
+ *   0 int   MAGIC
+ *   4 short VERSION
+ *   6 short RECORD_SIZE
+ *   8 int   segment number
+ *  12 int   reserved
+ *  16 long  number of records
+ *  24 long  creation time in ms
+ *
+ * record (16 bytes)
+ *   0 byte  type
+ *   1 byte  seat
+ *   2 byte  action ordinal or -1
+ *   3 byte  card rank or -1
+ *   4 int   game number or player id for SEAT
+ *   8 int   amount: chips, round number, or first half of the SEAT name
+ *  12 int   pot before the event, hand score for SHOWDOWN, or second
+ *           half of the SEAT name
+ * </pre>
+ * Every segment opens with a SEAT record per player so it can be read on
+ * its own. SEAT records carry the player's decorated name of up to eight
+ * ASCII characters in the amount and pot fields.
+ * @author Ron.Coleman
+ */
+public class HandHistory {
+    /** Magic number, "PKHH" */
+    public final static int MAGIC = 0x484b4850;
+
+    /** Format version */
+    public final static short VERSION = 2;
+
+    /** Header size in bytes */
+    public final static int HEADER_SIZE = 32;
+
+    /** Record size in bytes */
+    public final static int RECORD_SIZE = 16;
+
+    /** Offset of the record count in the header */
+    public final static int COUNT_OFFSET = 16;
+
+    /** Longest name a SEAT record holds */
+    public final static int NAME_SIZE = 8;
+
+    // Record types
+    public final static byte SEAT = 0;
+    public final static byte GAME = 1;
+    public final static byte DEAL = 2;
+    public final static byte ROUND = 3;
+    public final static byte ACTION = 4;
+    public final static byte SHOWDOWN = 5;
+    public final static byte BUST = 6;
+
+    /**
+     * Gets the path of a segment file.
+     * @param base Base path
+     * @param segment Segment number
+     * @return Path
+     */
+    public static String getSegmentPath(String base, int segment) {
+        return String.format("%s.%03d", base, segment);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class streams the records of a binary hand history.<p>
+ * The reader maps one segment at a time read-only and works like a
+ * cursor: next() moves to the following record and the getters read its
+ * fields straight from the mapping, so nothing is copied or allocated per
+ * record.
+ * @author Ron.Coleman
+ */
+public class HandHistoryReader implements AutoCloseable {
+    protected final String base;
+
+    protected int segment = -1;
+    protected MappedByteBuffer buffer;
+    protected long count;
+    protected long index;
+    protected int pos;
+
+    /**
+     * Constructor
+     * @param base Base path of the segment files
+     */
+    public HandHistoryReader(String base) {
+        this.base = base;
+    }
+
+    /**
+     * Moves to the next record.
+     * @return True if there is one, false at the end of the history
+     * @throws IOException
+     */
+    public boolean next() throws IOException {
+        while(buffer == null || index >= count) {
+            if(!open(segment + 1))
+                return false;
+        }
+
+        pos = HandHistory.HEADER_SIZE + (int) (index++ * HandHistory.RECORD_SIZE);
+
+        return true;
+    }
+
+    /**
+     * Maps a segment and checks its header.
+     * @param next Segment number
+     * @return True if the segment exists
+     * @throws IOException
+     */
+    protected boolean open(int next) throws IOException {
+        File file = new File(HandHistory.getSegmentPath(base, next));
+
+        if(!file.exists())
+            return false;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if(buffer.getInt(0) != HandHistory.MAGIC)
+            throw new IOException(file+" is not a hand history");
+
+        if(buffer.getShort(4) != HandHistory.VERSION || buffer.getShort(6) != HandHistory.RECORD_SIZE)
+            throw new IOException(file+" has unsupported version "+buffer.getShort(4));
+
+        segment = next;
+
+        count = buffer.getLong(HandHistory.COUNT_OFFSET);
+
+        index = 0;
+
+        return true;
+    }
+
+    /**
+     * Gets the record type.
+     * @return Type
+     */
+    public byte getType() {
+        return buffer.get(pos);
+    }
+
+    /**
+     * Gets the seat.
+     * @return Seat
+     */
+    public int getSeat() {
+        return buffer.get(pos + 1);
+    }
+
+    /**
+     * Gets the action ordinal.
+     * @return Ordinal or -1
+     */
+    public int getAction() {
+        return buffer.get(pos + 2);
+    }
+
+    /**
+     * Gets the card rank.
+     * @return Rank or -1
+     */
+    public int getRank() {
+        return buffer.get(pos + 3);
+    }
+
+    /**
+     * Gets the game number, or the player id for a SEAT record.
+     * @return Integer
+     */
+    public int getGame() {
+        return buffer.getInt(pos + 4);
+    }
+
+    /**
+     * Gets the amount: chips for DEAL and ACTION, the round number for
+     * ROUND, and the pot for SHOWDOWN.
+     * @return Integer
+     */
+    public int getAmount() {
+        return buffer.getInt(pos + 8);
+    }
+
+    /**
+     * Gets the pot before the event.
+     * @return Integer
+     */
+    public int getPot() {
+        return buffer.getInt(pos + 12);
+    }
+
+    /**
+     * Gets the winner's hand score for a SHOWDOWN record.
+     * @return Score
+     */
+    public int getScore() {
+        return buffer.getInt(pos + 12);
+    }
+
+    /**
+     * Gets the player name of a SEAT record.
+     * @return Name
+     */
+    public String getName() {
+        StringBuilder sb = new StringBuilder();
+
+        for(int k=0; k < HandHistory.NAME_SIZE; k++) {
+            byte c = buffer.get(pos + 8 + k);
+
+            if(c == 0)
+                break;
+
+            sb.append((char) c);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Gets the segment number of the current record.
+     * @return Integer
+     */
+    public int getSegment() {
+        return segment;
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.history;
+
+import java.io.IOException;
+import java.util.Arrays;
+import poker.card.Hand;
+import poker.util.Action;
+import poker.util.Helper;
+
+/**
+ * This class converts a binary hand history to the console text for
+ * debugging.<p>
+ * Usage: HandHistoryText base
+ * @author Ron.Coleman
+ */
+public class HandHistoryText {
+    // Most seats a history can have as seats are stored in a byte
+    private final static int MAX_SEATS = 128;
+
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0) {
+            System.err.println("usage: HandHistoryText base");
+            System.exit(1);
+        }
+
+        Action[] actions = Action.values();
+
+        String[] names = new String[MAX_SEATS];
+
+        // Cards of each seat packed as Hand does
+        int[] hands = new int[MAX_SEATS];
+
+        // Seats paid in the current game
+        boolean[] paid = new boolean[MAX_SEATS];
+
+        int numSeats = 0;
+
+        // Game in progress, if any
+        int game = -1;
+
+        try (HandHistoryReader reader = new HandHistoryReader(args[0])) {
+            while(reader.next()) {
+                int seat = reader.getSeat();
+
+                switch(reader.getType()) {
+                    case HandHistory.SEAT:
+                        names[seat] = reader.getName()+" (player #"+reader.getGame()+")";
+                        numSeats = Math.max(numSeats, seat + 1);
+                        break;
+
+                    case HandHistory.GAME:
+                        if(game >= 0)
+                            gameOver(game, names, hands, paid, numSeats);
+                        game = reader.getGame();
+                        Arrays.fill(hands, 0);
+                        Arrays.fill(paid, false);
+                        System.out.println(">>>> GAME "+reader.getGame()+" STARTING");
+                        break;
+
+                    case HandHistory.DEAL:
+                        hands[seat] = Hand.pack(hands[seat], reader.getRank());
+                        break;
+
+                    case HandHistory.ROUND:
+                        System.out.println("++++ ROUND "+reader.getAmount());
+                        break;
+
+                    case HandHistory.ACTION:
+                        Action action = actions[reader.getAction()];
+                        String line = names[seat]+" "+Helper.getGrammatical(action);
+                        if(action == Action.FOLD)
+                            line += " with "+Hand.describe(hands[seat]);
+                        System.out.println(line+".");
+                        break;
+
+                    case HandHistory.SHOWDOWN:
+                        System.out.println(names[seat]+" wins "+reader.getAmount()+" with "+Hand.describe(hands[seat]));
+                        paid[seat] = true;
+                        break;
+                }
+            }
+
+            if(game >= 0)
+                gameOver(game, names, hands, paid, numSeats);
+        }
+    }
+
+    /**
+     * Prints the end of a game as the console listener does.
+     * @param game Game number
+     * @param names Names by seat
+     * @param hands Packed hands by seat
+     * @param paid Seats paid in the game
+     * @param numSeats Number of seats
+     */
+    private static void gameOver(int game, String[] names, int[] hands, boolean[] paid, int numSeats) {
+        System.out.println(">>>> GAME "+game+" OVER");
+
+        for(int seat=0; seat < numSeats; seat++)
+            if(!paid[seat])
+                System.out.println(names[seat]+" LOST with "+Hand.describe(hands[seat]));
+    }
+}
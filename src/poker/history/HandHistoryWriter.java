@@ -0,0 +1,216 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.history;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import poker.GameEngine;
+import poker.event.GameEventListener;
+import poker.player.AbstractPlayer;
+import poker.util.Action;
+
+/**
+ * This class implements a game event sink that appends every hand to a
+ * binary hand history.<p>
+ * Each segment is a memory-mapped file of fixed size and records are put
+ * straight into the mapping, so appending allocates nothing. When a
+ * segment is full the writer rolls over to the next one. The header keeps
+ * the count of records written so the unused tail of the last segment is
+ * ignored by the reader.
+ * @author Ron.Coleman
+ */
+public class HandHistoryWriter implements GameEventListener {
+    /** Default segment size in bytes */
+    public final static long SEGMENT_SIZE = 64L << 20;
+
+    protected final String base;
+    protected final long segmentSize;
+
+    protected int segment = -1;
+    protected MappedByteBuffer buffer;
+    protected long count;
+
+    // Table whose players are in the SEAT records
+    protected GameEngine table;
+
+    /**
+     * Constructor
+     * @param base Base path of the segment files
+     * @throws IOException
+     */
+    public HandHistoryWriter(String base) throws IOException {
+        this(base, SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param base Base path of the segment files
+     * @param segmentSize Segment size in bytes
+     * @throws IOException
+     */
+    public HandHistoryWriter(String base, long segmentSize) throws IOException {
+        this.base = base;
+
+        this.segmentSize = segmentSize;
+
+        rollover();
+    }
+
+    @Override
+    public void gameStarted(GameEngine table, int game) {
+        if(this.table != table) {
+            this.table = table;
+
+            writeSeats();
+        }
+
+        append(HandHistory.GAME, 0, -1, -1, game, 0, table.getPotSize());
+    }
+
+    @Override
+    public void dealt(GameEngine table, AbstractPlayer player, int rank) {
+        append(HandHistory.DEAL, player.getSeat(), -1, rank, table.getGamesPlayed(), table.getMinBet(), table.getPotSize());
+    }
+
+    @Override
+    public void roundStarted(GameEngine table, int round) {
+        append(HandHistory.ROUND, 0, -1, -1, table.getGamesPlayed(), round, table.getPotSize());
+    }
+
+    @Override
+    public void acted(GameEngine table, AbstractPlayer player, Action action, int amount) {
+        append(HandHistory.ACTION, player.getSeat(), action.ordinal(), -1, table.getGamesPlayed(), amount, table.getPotSize());
+    }
+
+    @Override
+    public void showdown(GameEngine table, AbstractPlayer winner, int pot) {
+        // Scores run past a byte so they go in the pot field
+        append(HandHistory.SHOWDOWN, winner.getSeat(), -1, -1, table.getGamesPlayed(), pot, winner.getHand().getRank());
+    }
+
+    @Override
+    public void busted(GameEngine table, AbstractPlayer player) {
+        append(HandHistory.BUST, player.getSeat(), -1, -1, table.getGamesPlayed(), 0, 0);
+    }
+
+    /**
+     * Flushes the current segment to the file.
+     */
+    @Override
+    public void close() {
+        buffer.force();
+    }
+
+    /**
+     * Writes a SEAT record for every player at the table.
+     */
+    protected void writeSeats() {
+        for(AbstractPlayer player: table.getPlayers()) {
+            String name = player.decorated();
+
+            // Pack up to eight ASCII characters into two ints
+            long packed = 0;
+            for(int k=0; k < Math.min(name.length(), HandHistory.NAME_SIZE); k++)
+                packed |= ((long) (name.charAt(k) & 0x7f)) << (8 * k);
+
+            append(HandHistory.SEAT, player.getSeat(), -1, -1, player.getId(), (int) packed, (int) (packed >>> 32));
+        }
+    }
+
+    /**
+     * Appends a record, rolling over to a new segment if this one is full.
+     * @param type Record type
+     * @param seat Seat
+     * @param action Action ordinal or -1
+     * @param rank Card rank or -1
+     * @param game Game number
+     * @param amount Amount
+     * @param pot Pot
+     */
+    protected void append(byte type, int seat, int action, int rank, int game, int amount, int pot) {
+        if(buffer.remaining() < HandHistory.RECORD_SIZE) {
+            try {
+                rollover();
+
+                // Every segment starts with the seats
+                if(table != null)
+                    writeSeats();
+
+            } catch (IOException ex) {
+                Logger.getLogger(HandHistoryWriter.class.getName()).log(Level.SEVERE, null, ex);
+
+                return;
+            }
+        }
+
+        int pos = buffer.position();
+
+        buffer.put(pos, type);
+        buffer.put(pos + 1, (byte) seat);
+        buffer.put(pos + 2, (byte) action);
+        buffer.put(pos + 3, (byte) rank);
+        buffer.putInt(pos + 4, game);
+        buffer.putInt(pos + 8, amount);
+        buffer.putInt(pos + 12, pot);
+
+        buffer.position(pos + HandHistory.RECORD_SIZE);
+
+        buffer.putLong(HandHistory.COUNT_OFFSET, ++count);
+    }
+
+    /**
+     * Flushes the current segment, if any, and maps the next one.
+     * @throws IOException
+     */
+    protected final void rollover() throws IOException {
+        if(buffer != null)
+            close();
+
+        segment++;
+
+        count = 0;
+
+        String path = HandHistory.getSegmentPath(base, segment);
+
+        // The mapping stays valid after the file is closed
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(0);
+
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(0, HandHistory.MAGIC);
+        buffer.putShort(4, HandHistory.VERSION);
+        buffer.putShort(6, (short) HandHistory.RECORD_SIZE);
+        buffer.putInt(8, segment);
+        buffer.putInt(12, 0);
+        buffer.putLong(HandHistory.COUNT_OFFSET, 0);
+        buffer.putLong(24, System.currentTimeMillis());
+
+        buffer.position(HandHistory.HEADER_SIZE);
+    }
+}
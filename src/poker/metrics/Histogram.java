@@ -0,0 +1,156 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class counts non-negative values in log-linear buckets the way
+ * HdrHistogram does: each power of two is split into SUB_BUCKETS equal
+ * buckets, so a value is known to within 1 / SUB_BUCKETS of itself over
+ * the whole range of a long, and values below SUB_BUCKETS exactly.<p>
+ * Like Statistics, the counts are striped by thread in one primitive
+ * array, so recording allocates nothing and tables on different threads
+ * don't contend for the same cache line.
+ * @author Ron.Coleman
+ */
+public class Histogram {
+    /** Bits of a value kept below its highest one bit */
+    public final static int SUB_BITS = 4;
+
+    /** Buckets per power of two */
+    public final static int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Number of buckets, enough for any long */
+    public final static int NUM_BUCKETS = (64 - SUB_BITS) << SUB_BITS;
+
+    // Longs in a cache line
+    private final static int LINE = 8;
+
+    // Stripe count less one, a power of two less one
+    protected final int mask;
+
+    // Longs per stripe: the buckets, the sum, and a line of padding
+    protected final int stride;
+
+    // Counts indexed by stripe * stride + bucket and sums by stripe * stride + NUM_BUCKETS
+    protected final AtomicLongArray cells;
+
+    /**
+     * Constructor with a stripe for each processor.
+     */
+    public Histogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     * @param numStripes Number of stripes, rounded up to a power of two
+     */
+    public Histogram(int numStripes) {
+        int stripes = numStripes <= 1 ? 1 : Integer.highestOneBit(numStripes - 1) << 1;
+
+        this.mask = stripes - 1;
+
+        this.stride = (NUM_BUCKETS + 1 + LINE - 1) / LINE * LINE + LINE;
+
+        this.cells = new AtomicLongArray(stripes * stride);
+    }
+
+    /**
+     * Gets the bucket of a value.
+     * @param value Value, where negatives count as zero
+     * @return Bucket
+     */
+    public static int getBucket(long value) {
+        if(value < SUB_BUCKETS)
+            return value < 0 ? 0 : (int) value;
+
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    /**
+     * Records a value in the calling thread's stripe.
+     * @param value Value
+     */
+    public void record(long value) {
+        int base = ((int) Thread.currentThread().getId() & mask) * stride;
+
+        cells.getAndIncrement(base + getBucket(value));
+
+        cells.getAndAdd(base + NUM_BUCKETS, value);
+    }
+
+    /**
+     * Sums the stripes. Values still being recorded may or may not be in it.
+     * @return Counts by bucket and, after them, the sum of the values
+     */
+    public long[] snapshot() {
+        long[] totals = new long[NUM_BUCKETS + 1];
+
+        for(int base=0; base < cells.length(); base += stride)
+            for(int k=0; k < totals.length; k++)
+                totals[k] += cells.get(base + k);
+
+        return totals;
+    }
+
+    /**
+     * Counts the values of a snapshot below a power of two.
+     * @param totals Snapshot
+     * @param exp Exponent of the power of two
+     * @return Count
+     */
+    public static long getCountBelow(long[] totals, int exp) {
+        long count = 0;
+
+        for(int k=0; k < getBucket(1L << exp); k++)
+            count += totals[k];
+
+        return count;
+    }
+
+    /**
+     * Counts the values of a snapshot.
+     * @param totals Snapshot
+     * @return Count
+     */
+    public static long getCount(long[] totals) {
+        long count = 0;
+
+        for(int k=0; k < NUM_BUCKETS; k++)
+            count += totals[k];
+
+        return count;
+    }
+
+    /**
+     * Gets the sum of the values of a snapshot.
+     * @param totals Snapshot
+     * @return Sum
+     */
+    public static long getSum(long[] totals) {
+        return totals[NUM_BUCKETS];
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.metrics;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import poker.player.AbstractPlayer;
+import poker.util.Action;
+
+/**
+ * This class collects the metrics of any number of tables and writes them
+ * in the OpenMetrics text format:
+ * <ul>
+ * <li>hands played, uptime, and hands per second,</li>
+ * <li>rounds of betting per hand,</li>
+ * <li>time to shuffle, bet, pick the winner, and decide,</li>
+ * <li>folds, checks, and raises by player class, and</li>
+ * <li>bankrolls at the end of each match.</li>
+ * </ul>
+ * Tables record into it through GameEngine.setMetrics. Recording only
+ * adds to counters made up front or, for a player class, the first time
+ * it acts.
+ * @author Ron.Coleman
+ */
+public class Metrics {
+    // Bounds of the exported buckets as powers of two: times from 64 ns
+    // to 1 s, rounds up to 32, and bankrolls up to a million chips
+    private final static int MIN_NANOS_EXP = 6;
+    private final static int MAX_NANOS_EXP = 30;
+    private final static int MAX_ROUNDS_EXP = 5;
+    private final static int MAX_CHIPS_EXP = 20;
+
+    // Action labels by action value
+    private final static String[] ACTIONS = {"fold", "check", "raise"};
+
+    protected final long startTime = System.nanoTime();
+
+    protected final LongAdder hands = new LongAdder();
+
+    protected final Histogram rounds = new Histogram();
+    protected final Histogram shuffleNanos = new Histogram();
+    protected final Histogram bettingNanos = new Histogram();
+    protected final Histogram showdownNanos = new Histogram();
+    protected final Histogram decisionNanos = new Histogram();
+    protected final Histogram bankrolls = new Histogram();
+
+    // Action counts by action value for each player class by simple name
+    protected final Map<String, LongAdder[]> actions = new ConcurrentSkipListMap<>();
+
+    // Action counts of a player class, found without a map lookup
+    protected final ClassValue<LongAdder[]> actionsByClass = new ClassValue<LongAdder[]>() {
+        @Override
+        protected LongAdder[] computeValue(Class<?> type) {
+            return actions.computeIfAbsent(type.getSimpleName(), (name) -> {
+                LongAdder[] counts = new LongAdder[ACTIONS.length];
+
+                for(int k=0; k < counts.length; k++)
+                    counts[k] = new LongAdder();
+
+                return counts;
+            });
+        }
+    };
+
+    /**
+     * Records a shuffle.
+     * @param nanos Time in nanoseconds
+     */
+    public void shuffled(long nanos) {
+        shuffleNanos.record(nanos);
+    }
+
+    /**
+     * Records a player's decision.
+     * @param player Player
+     * @param action Action
+     * @param nanos Time in nanoseconds
+     */
+    public void decided(AbstractPlayer player, Action action, long nanos) {
+        decisionNanos.record(nanos);
+
+        if(action != Action.NONE)
+            actionsByClass.get(player.getClass())[action.value].increment();
+    }
+
+    /**
+     * Records a hand.
+     * @param numRounds Rounds of betting
+     * @param bettingNanos Time to bet in nanoseconds
+     * @param showdownNanos Time to pick the winner in nanoseconds
+     */
+    public void played(int numRounds, long bettingNanos, long showdownNanos) {
+        hands.increment();
+
+        rounds.record(numRounds);
+
+        this.bettingNanos.record(bettingNanos);
+
+        this.showdownNanos.record(showdownNanos);
+    }
+
+    /**
+     * Records the bankrolls at the end of a match.
+     * @param players Players
+     */
+    public void banked(List<AbstractPlayer> players) {
+        for(AbstractPlayer player: players)
+            bankrolls.record(player.getBankroll());
+    }
+
+    /**
+     * Writes the metrics in the OpenMetrics text format.
+     * @return Text
+     */
+    public String toOpenMetrics() {
+        StringBuilder sb = new StringBuilder();
+
+        double uptime = (System.nanoTime() - startTime) / 1e9;
+
+        long numHands = hands.sum();
+
+        writeHeader(sb, "poker_hands", "counter", "Hands played.");
+        sb.append("poker_hands_total ").append(numHands).append('\n');
+
+        writeHeader(sb, "poker_uptime_seconds", "gauge", "Time since the metrics started.");
+        sb.append("poker_uptime_seconds ").append(uptime).append('\n');
+
+        writeHeader(sb, "poker_hands_per_second", "gauge", "Hands played per second of uptime.");
+        sb.append("poker_hands_per_second ").append(uptime > 0 ? numHands / uptime : 0).append('\n');
+
+        writeHistogram(sb, "poker_rounds_per_hand", "Rounds of betting per hand.", rounds, 0, MAX_ROUNDS_EXP, 0);
+
+        writeHistogram(sb, "poker_shuffle_seconds", "Time to shuffle the deck.", shuffleNanos, MIN_NANOS_EXP, MAX_NANOS_EXP, 9);
+
+        writeHistogram(sb, "poker_betting_seconds", "Time for the rounds of betting of a hand.", bettingNanos, MIN_NANOS_EXP, MAX_NANOS_EXP, 9);
+
+        writeHistogram(sb, "poker_showdown_seconds", "Time to pick the winner of a hand.", showdownNanos, MIN_NANOS_EXP, MAX_NANOS_EXP, 9);
+
+        writeHistogram(sb, "poker_decision_seconds", "Time for a player to decide.", decisionNanos, MIN_NANOS_EXP, MAX_NANOS_EXP, 9);
+
+        writeHeader(sb, "poker_actions", "counter", "Actions by player class.");
+
+        for(Map.Entry<String, LongAdder[]> entry: actions.entrySet())
+            for(int k=0; k < ACTIONS.length; k++)
+                sb.append("poker_actions_total{player=\"").append(entry.getKey())
+                        .append("\",action=\"").append(ACTIONS[k]).append("\"} ")
+                        .append(entry.getValue()[k].sum()).append('\n');
+
+        writeHistogram(sb, "poker_bankroll_chips", "Bankrolls at the end of a match.", bankrolls, 0, MAX_CHIPS_EXP, 0);
+
+        sb.append("# EOF\n");
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes the type and help of a metric.
+     * @param sb Text
+     * @param name Name
+     * @param type Type
+     * @param help Help
+     */
+    protected void writeHeader(StringBuilder sb, String name, String type, String help) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    /**
+     * Writes a histogram with a bucket for each power of two. As the values
+     * are whole numbers, a bucket of the values below 2^k has an upper
+     * bound of 2^k - 1.
+     * @param sb Text
+     * @param name Name
+     * @param help Help
+     * @param histogram Histogram
+     * @param minExp Exponent of the first bucket
+     * @param maxExp Exponent of the last bucket
+     * @param decimals Decimal places to shift the values, e.g., 9 for
+     * nanoseconds to seconds
+     */
+    protected void writeHistogram(StringBuilder sb, String name, String help, Histogram histogram, int minExp, int maxExp, int decimals) {
+        long[] totals = histogram.snapshot();
+
+        long count = Histogram.getCount(totals);
+
+        writeHeader(sb, name, "histogram", help);
+
+        for(int exp=minExp; exp <= maxExp; exp++)
+            sb.append(name).append("_bucket{le=\"").append(BigDecimal.valueOf((1L << exp) - 1, decimals).toPlainString()).append("\"} ")
+                    .append(Histogram.getCountBelow(totals, exp)).append('\n');
+
+        sb.append(name).append("_bucket{le=\"+Inf\"} ").append(count).append('\n');
+        sb.append(name).append("_count ").append(count).append('\n');
+        sb.append(name).append("_sum ").append(BigDecimal.valueOf(Histogram.getSum(totals), decimals).toPlainString()).append('\n');
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import poker.util.GameConfig;
+
+/**
+ * This class serves the metrics at http://localhost:port/metrics and
+ * writes them to a file every so often, as the "metrics" of the config
+ * file say. The file is replaced whole so a reader never sees part of
+ * it.
+ * @author Ron.Coleman
+ */
+public class MetricsExporter {
+    /** Content type of the OpenMetrics text format */
+    public final static String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    protected final Metrics metrics;
+
+    // Server or null if not serving
+    protected HttpServer server;
+
+    // File and its writer or null if not writing
+    protected final File file;
+    protected ScheduledExecutorService dumper;
+
+    /**
+     * Constructor
+     * @param metrics Metrics
+     * @param port Local port to serve on or -1 not to serve
+     * @param path Path of the file or null not to write one
+     * @param period Seconds between writes of the file
+     * @throws IOException if the server can't start
+     */
+    public MetricsExporter(Metrics metrics, int port, String path, int period) throws IOException {
+        this.metrics = metrics;
+
+        this.file = path == null ? null : new File(path);
+
+        if(port >= 0) {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+
+            server.createContext("/metrics", this::serve);
+
+            server.start();
+        }
+
+        if(file != null) {
+            dumper = Executors.newSingleThreadScheduledExecutor((task) -> {
+                Thread thread = new Thread(task, "metrics");
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            dumper.scheduleAtFixedRate(this::dump, period, period, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Starts exporting new metrics as a config file says.
+     * @param config Configuration
+     * @return Exporter or null if the config file has no metrics
+     * @throws IOException if the server can't start
+     */
+    public static MetricsExporter start(GameConfig config) throws IOException {
+        if(config.getMetricsPort() < 0 && config.getMetricsPath() == null)
+            return null;
+
+        return new MetricsExporter(new Metrics(), config.getMetricsPort(), config.getMetricsPath(), config.getMetricsPeriod());
+    }
+
+    /**
+     * Answers a request for the metrics.
+     * @param exchange Request and response
+     * @throws IOException
+     */
+    protected void serve(HttpExchange exchange) throws IOException {
+        byte[] body = metrics.toOpenMetrics().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Writes the metrics to a temporary file and moves it into place.
+     */
+    protected void dump() {
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+
+            dir.mkdirs();
+
+            File temp = File.createTempFile("metrics", ".tmp", dir);
+
+            Files.write(temp.toPath(), metrics.toOpenMetrics().getBytes(StandardCharsets.UTF_8));
+
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+            } catch (IOException ex) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } catch (IOException ex) {
+            // Try again next time
+            Logger.getLogger(MetricsExporter.class.getName()).log(Level.WARNING, null, ex);
+        }
+    }
+
+    /**
+     * Stops serving and writing, writing the file one last time.
+     */
+    public void close() {
+        if(dumper != null) {
+            dumper.shutdownNow();
+
+            dump();
+        }
+
+        if(server != null)
+            server.stop(0);
+    }
+
+    /**
+     * Gets the metrics.
+     * @return Metrics
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -1,294 +1,392 @@
-/*
- Copyright (c) 2015 Ron Coleman
- Permission is hereby granted, free of charge, to any person obtaining
- a copy of this software and associated documentation files (the
- "Software"), to deal in the Software without restriction, including
- without limitation the rights to use, copy, modify, merge, publish,
- distribute, sublicense, and/or sell copies of the Software, and to
- permit persons to whom the Software is furnished to do so, subject to
- the following conditions:
- The above copyright notice and this permission notice shall be
- included in all copies or substantial portions of the Software.
- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
- EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
- MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
- NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
- LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
- OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
- WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
- */
-package poker.player;
-
-import poker.card.Card;
-import poker.card.Hand;
-import poker.util.Action;
-import poker.util.Config;
-
-/**
- * Every player must subclass this class.
- * @author Ron.Coleman
- */
-abstract public class AbstractPlayer {
-    public static final Boolean DEBUG = true;
-    
-    protected static int idNext = 1;
-    protected static int numPlayers = 0;
-    
-    protected Hand hand = new Hand();
-    protected double alpha = 0.0;
-    protected double beta = 0.0;
-    protected int bankroll = 0;
-    protected final int id;
-
-    protected Action lastAction = Action.NONE;
-
-    /**
-     * Constructor
-     */
-    protected AbstractPlayer() {
-        this(0,0);
-    }
-    
-    /**
-     * Constructor
-     * @param alpha Alpha
-     * @param beta Beta
-     */
-    protected AbstractPlayer(double alpha, double beta) {
-        this.id = idNext++;
-        
-        this.alpha = alpha;
-        
-        this.beta = beta;
-        
-        numPlayers++;
-    }
-
-    /**
-     * Answers whether player still has active interest in the jackpot.
-     * @return Boolean 
-     */
-    public Boolean isActive() {
-        return lastAction != Action.FOLD && lastAction != Action.NONE;
-    }
-    
-    /**
-     * Answers whether player has raised the bet.
-     * @return Boolean
-     */
-    public Boolean didRaise() {
-        return lastAction == Action.RAISE;
-    }
-    
-    /**
-     * Folds the hand.
-     * @return Action.FOLD
-     */
-    protected Action fold() {
-        lastAction = Action.FOLD;
-        
-        numPlayers--;
-        
-        return Action.FOLD;
-    }
-    
-    /**
-     * Raises the hand.
-     * @return Action.RAISE
-     */
-    protected Action raise() {
-        return lastAction = Action.RAISE;
-    }
-    
-    /**
-     * Checks the hand.
-     * @return Action.CHECK
-     */
-    protected Action check() {
-        return lastAction = Action.CHECK;
-    }
-    
-    /**
-     * Resets the hand which is to say, erases the last action and clears the hand.
-     */
-    public void reset() {
-        lastAction = Action.NONE;
-        
-        numPlayers = Config.getInstance().getNumPlayers();
-        
-        clear();
-    }
-    
-    /**
-     * Clears the last action on the hand.
-     */
-    public void clearAction() {
-        lastAction = Action.NONE;
-    }
-    
-    /**
-     * Clears the hard(s) in the hand.
-     */
-    public void clear() {
-        hand.clear();
-    }
-    
-    /**
-     * Invoked when a player acts (CHECK, RAISE, or FOLD)
-     * @param player
-     * @param action 
-     */
-    public void acted(AbstractPlayer player, Action action) {
-
-    }
-    
-    /**
-     * Updates the players' bandroll with the pot.
-     * @param pot 
-     */
-    public void won(int pot) {
-        bankroll += pot;
-    }
-    
-    /**
-     * Get the hand rank.
-     * @return Integer
-     */
-    public Hand getHand() {
-        return hand;
-    }
-    
-    /**
-     * Gets the bankroll.
-     * @return Integer
-     */
-    public int getBankroll() {
-        return bankroll;
-    }
-    
-    /**
-     * Sets the bankroll.
-     * @param bankroll 
-     */
-    public void setBankroll(int bankroll) {
-        this.bankroll = bankroll;
-    }
-    
-    /**
-     * Hits the hand with a card.
-     * @param card Card
-     */
-    public void hit(Card card) {
-        hand.hit(card);
-    }
-
-    /**
-     * Implements the bet decision tree.
-     * @param raise Inbound raise
-     * @return Action
-     */
-    public Action getAction(int raise) {
-        // Get the win probability
-        double wp = hand.getWinProbability(numPlayers);
-
-        // If we have no cushion to make a bet, we must fold
-        int cover = bankroll - raise;
-        
-        if (cover < 0)
-            return fold();
-
-        // Do bet decision tree
-        if (wp >= alpha) {
-            if (wp >= beta && cover > 0)
-                return raise();
-            else if(raise == 0 || cover == 0)
-                return check();
-        }
-
-        else if (wp < alpha && raise == 0)
-            return check();
-
-        // We'll arrive here if we can't raise or check
-        return fold();
-    }
-    
-    /**
-     * Gets the last action.
-     * @return Action
-     */
-    public Action getLastAction() {
-        return lastAction;
-    }
-
-    /**
-     * Makes a bet
-     * @param amt Bet amount deducted from the bankroll.
-     * @return 
-     */
-    public int bet(int amt) {
-        int cushion = bankroll - amt;
-        
-        if(cushion < 0)
-            return cushion;
-        
-        bankroll -= amt;
-
-        return amt;
-    }
-    
-    /**
-     * Gets player id
-     * @return Integer
-     */
-    public int getId() {
-        return id;
-    }
-    
-    /**
-     * Characterizes the player -- useful for debugging purposes.
-     * @return String
-     */
-    public String characterize() {
-        return "id: "+id+" a: "+alpha+" b: "+beta+ " b/r: "+bankroll+" hand: "+hand+" last action: "+lastAction;
-    }
-    
-    /**
-     * Converts this class to a string.
-     * @return 
-     */
-    @Override
-    public String toString() {
-        return decorate(getClass().getSimpleName()) + " (player #"+id+")";
-    }
-    
-    /**
-     * Gets decorated name.
-     * @return String
-     */
-    public String decorated() {
-        return decorate(getClass().getSimpleName());
-    }
-    
-    /**
-     * Decorates a class name.
-     * @param name Name
-     * @return Decorated name
-     */
-    public String decorate(String name) {
-        StringBuilder sb = new StringBuilder();
-        
-        for(int k=0; k < name.length(); k++) {
-            char c = name.charAt(k);
-            
-
-            if(Character.isUpperCase(name.charAt(k)))
-                sb.append(c);
-//            if(Character.isUpperCase(name.charAt(k)) && k != 0)
-//                sb.append(" ");
-            
-//            sb.append(Character.toUpperCase(c));    
-        }
-        
-        return sb.toString();
-    }
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.player;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import poker.GameEngine;
+import poker.card.Card;
+import poker.card.Hand;
+import poker.card.WinTable;
+import poker.util.Action;
+
+/**
+ * Every player must subclass this class.
+ * @author Ron.Coleman
+ */
+abstract public class AbstractPlayer {
+    public static final Boolean DEBUG = true;
+    
+    protected static final AtomicInteger idNext = new AtomicInteger(1);
+    
+    protected Hand hand = new Hand();
+    protected double alpha = 0.0;
+    protected double beta = 0.0;
+    protected int bankroll = 0;
+    protected final int id;
+    
+    /** Table where the player sits */
+    protected GameEngine table;
+    
+    /** Seat number at the table starting from zero */
+    protected int seat = -1;
+
+    protected Action lastAction = Action.NONE;
+
+    /** Action values compiled from the thresholds, see DecisionKernel */
+    protected byte[] policy;
+
+    /** Win table the policy was compiled for or null to compile again */
+    protected WinTable policyTable;
+
+    /**
+     * Constructor
+     */
+    protected AbstractPlayer() {
+        this(0,0);
+    }
+    
+    /**
+     * Constructor
+     * @param alpha Alpha
+     * @param beta Beta
+     */
+    protected AbstractPlayer(double alpha, double beta) {
+        this.id = idNext.getAndIncrement();
+        
+        this.alpha = alpha;
+        
+        this.beta = beta;
+    }
+    
+    /**
+     * Sits the player at a table.
+     * @param table Table
+     * @param seat Seat number starting from zero
+     */
+    public void sit(GameEngine table, int seat) {
+        this.table = table;
+        
+        this.seat = seat;
+    }
+
+    /**
+     * Answers whether player has put all their chips in the pot and is
+     * still in the game without acting again.
+     * @return Boolean
+     */
+    public Boolean isAllIn() {
+        return bankroll == 0 && lastAction != Action.FOLD && !hand.isEmpty();
+    }
+
+    /**
+     * Answers whether player still has active interest in the jackpot.
+     * @return Boolean 
+     */
+    public Boolean isActive() {
+        return lastAction != Action.FOLD && lastAction != Action.NONE;
+    }
+    
+    /**
+     * Answers whether player has raised the bet.
+     * @return Boolean
+     */
+    public Boolean didRaise() {
+        return lastAction == Action.RAISE;
+    }
+    
+    /**
+     * Folds the hand.
+     * @return Action.FOLD
+     */
+    protected Action fold() {
+        lastAction = Action.FOLD;
+        
+        table.folded();
+        
+        return Action.FOLD;
+    }
+    
+    /**
+     * Raises the hand.
+     * @return Action.RAISE
+     */
+    protected Action raise() {
+        return lastAction = Action.RAISE;
+    }
+    
+    /**
+     * Checks the hand.
+     * @return Action.CHECK
+     */
+    protected Action check() {
+        return lastAction = Action.CHECK;
+    }
+    
+    /**
+     * Resets the hand which is to say, erases the last action and clears the hand.
+     */
+    public void reset() {
+        lastAction = Action.NONE;
+        
+        clear();
+    }
+    
+    /**
+     * Gets up from the table, forgetting the table, seat, and bankroll, so
+     * the player can be seated at another one.
+     */
+    public void leave() {
+        reset();
+        
+        table = null;
+        
+        seat = -1;
+        
+        bankroll = 0;
+    }
+    
+    /**
+     * Clears the last action on the hand.
+     */
+    public void clearAction() {
+        lastAction = Action.NONE;
+    }
+    
+    /**
+     * Clears the hard(s) in the hand.
+     */
+    public void clear() {
+        hand.clear();
+    }
+    
+    /**
+     * Answers whether the player wants to be told every action. Only a
+     * subscriber's acted() gets invoked; the table publishes the actions
+     * in batches, always before the subscriber decides.
+     * @return Boolean
+     */
+    public Boolean isSubscriber() {
+        return false;
+    }
+    
+    /**
+     * Invoked when a player acts (CHECK, RAISE, or FOLD)
+     * @param player
+     * @param action 
+     */
+    public void acted(AbstractPlayer player, Action action) {
+
+    }
+    
+    /**
+     * Updates the players' bandroll with the pot.
+     * @param pot 
+     */
+    public void won(int pot) {
+        bankroll += pot;
+    }
+    
+    /**
+     * Get the hand rank.
+     * @return Integer
+     */
+    public Hand getHand() {
+        return hand;
+    }
+    
+    /**
+     * Gets the bankroll.
+     * @return Integer
+     */
+    public int getBankroll() {
+        return bankroll;
+    }
+    
+    /**
+     * Sets the bankroll.
+     * @param bankroll 
+     */
+    public void setBankroll(int bankroll) {
+        this.bankroll = bankroll;
+    }
+    
+    /**
+     * Hits the hand with a card.
+     * @param card Card
+     */
+    public void hit(Card card) {
+        hand.hit(card);
+    }
+    
+    /**
+     * Hits the hand with a card by its rank.
+     * @param rank Card rank
+     */
+    public void hit(int rank) {
+        hand.hit(rank);
+    }
+
+    /**
+     * Implements the bet decision tree by looking it up in the policy,
+     * which is compiled again if the hand's win table changed.
+     * @param raise Inbound raise
+     * @return Action
+     */
+    public Action getAction(int raise) {
+        if(policyTable != hand.getWinTable())
+            compile();
+
+        return play(policy, raise);
+    }
+
+    /**
+     * Compiles the policy from the thresholds for the hand's win table.
+     */
+    protected void compile() {
+        policyTable = hand.getWinTable();
+
+        policy = DecisionKernel.compile(policyTable, alpha, beta);
+    }
+
+    /**
+     * Plays the action of a compiled policy.
+     * @param policy Action values compiled for the win table
+     * @param raise Inbound raise
+     * @return Action
+     */
+    protected Action play(byte[] policy, int raise) {
+        int index = DecisionKernel.index(policyTable, hand.getRank(), table.getNumPlayers(), raise, bankroll - raise);
+
+        switch(policy[index]) {
+            case 2:
+                return raise();
+
+            case 1:
+                return check();
+
+            default:
+                return fold();
+        }
+    }
+    
+    /**
+     * Gets the last action.
+     * @return Action
+     */
+    public Action getLastAction() {
+        return lastAction;
+    }
+
+    /**
+     * Makes a bet
+     * @param amt Bet amount deducted from the bankroll.
+     * @return 
+     */
+    public int bet(int amt) {
+        int cushion = bankroll - amt;
+        
+        if(cushion < 0)
+            return cushion;
+        
+        bankroll -= amt;
+
+        return amt;
+    }
+    
+    /**
+     * Gets the threshold to stay in.
+     * @return Win probability
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+    
+    /**
+     * Gets the threshold to raise.
+     * @return Win probability
+     */
+    public double getBeta() {
+        return beta;
+    }
+    
+    /**
+     * Gets player id
+     * @return Integer
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Gets the seat number at the table.
+     * @return Integer starting from zero or -1 if not seated
+     */
+    public int getSeat() {
+        return seat;
+    }
+    
+    /**
+     * Characterizes the player -- useful for debugging purposes.
+     * @return String
+     */
+    public String characterize() {
+        return "id: "+id+" a: "+alpha+" b: "+beta+ " b/r: "+bankroll+" hand: "+hand+" last action: "+lastAction;
+    }
+    
+    /**
+     * Converts this class to a string.
+     * @return 
+     */
+    @Override
+    public String toString() {
+        return decorate(getClass().getSimpleName()) + " (player #"+id+")";
+    }
+    
+    /**
+     * Gets decorated name.
+     * @return String
+     */
+    public String decorated() {
+        return decorate(getClass().getSimpleName());
+    }
+    
+    /**
+     * Decorates a class name.
+     * @param name Name
+     * @return Decorated name
+     */
+    public String decorate(String name) {
+        StringBuilder sb = new StringBuilder();
+        
+        for(int k=0; k < name.length(); k++) {
+            char c = name.charAt(k);
+            
+
+            if(Character.isUpperCase(name.charAt(k)))
+                sb.append(c);
+//            if(Character.isUpperCase(name.charAt(k)) && k != 0)
+//                sb.append(" ");
+            
+//            sb.append(Character.toUpperCase(c));    
+        }
+        
+        return sb.toString();
+    }
 }
\ No newline at end of file
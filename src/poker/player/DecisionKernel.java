@@ -0,0 +1,137 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.player;
+
+import poker.card.WinTable;
+
+/**
+ * This class implements the threshold decision of the alpha / beta bots
+ * without branches so one bot or a batch of them can be decided in a
+ * tight loop over primitive arrays.<p>
+ * A bot with win probability wp and cover = bankroll - raise
+ * <ul>
+ * <li>folds if it can't cover the raise,</li>
+ * <li>raises if wp &ge; alpha, wp &ge; beta, and it has chips left after
+ * the raise,</li>
+ * <li>checks if no one raised or it can just cover the raise with
+ * wp &ge; alpha, and</li>
+ * <li>folds otherwise.</li>
+ * </ul>
+ * The results are the Action values: 0 = FOLD, 1 = CHECK, 2 = RAISE.<p>
+ * As wp only depends on the rank and the number of hands, and the rest
+ * only on whether there's a raise and the sign of the cover, a bot's
+ * decisions can also be compiled into a byte table with one entry per
+ * rank, number of hands, raise pending or not, and cover state.
+ * @author Ron.Coleman
+ */
+public class DecisionKernel {
+    /** Number of cover states: short, all in, and chips left */
+    public final static int NUM_COVERS = 3;
+
+    /**
+     * Decides one bot.
+     * @param wp Win probability
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     * @param bankroll Bankroll in chips
+     * @param raise Amount to call
+     * @return Action value
+     */
+    public static int decide(double wp, double alpha, double beta, int bankroll, int raise) {
+        int cover = bankroll - raise;
+
+        int solvent = cover >= 0 ? 1 : 0;
+        int stay = wp >= alpha ? 1 : 0;
+        int bet = wp >= beta && cover > 0 ? 1 : 0;
+        int open = raise == 0 ? 1 : 0;
+        int allIn = cover == 0 ? 1 : 0;
+
+        int raises = solvent & stay & bet;
+        int checks = solvent & (1 - raises) & (open | (stay & allIn));
+
+        return (raises << 1) | checks;
+    }
+
+    /**
+     * Decides a batch of bots facing the same raise.
+     * @param wps Win probabilities
+     * @param alphas Thresholds to stay in
+     * @param betas Thresholds to raise
+     * @param bankrolls Bankrolls in chips
+     * @param raise Amount to call
+     * @param actions Action values out
+     * @param count Number of bots
+     */
+    public static void decide(double[] wps, double[] alphas, double[] betas, int[] bankrolls, int raise, byte[] actions, int count) {
+        for(int k=0; k < count; k++)
+            actions[k] = (byte) decide(wps[k], alphas[k], betas[k], bankrolls[k], raise);
+    }
+
+    /**
+     * Compiles the decisions of a bot for every entry of a win table.
+     * @param table Win table
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     * @return Action values indexed by index()
+     */
+    public static byte[] compile(WinTable table, double alpha, double beta) {
+        byte[] policy = new byte[(table.getMaxHands() + 1) * table.getNumRanks() * 2 * NUM_COVERS];
+
+        for(int numHands=0; numHands <= table.getMaxHands(); numHands++)
+            for(int rank=table.getMinRank(); rank < table.getMinRank() + table.getNumRanks(); rank++) {
+                double wp = table.get(numHands, rank);
+
+                // Any raise and cover of the same signs decide the same
+                for(int raise=0; raise <= 1; raise++)
+                    for(int cover=-1; cover <= 1; cover++)
+                        policy[index(table, rank, numHands, raise, cover)] = (byte) decide(wp, alpha, beta, raise + cover, raise);
+            }
+
+        return policy;
+    }
+
+    /**
+     * Gets the index of a decision in a compiled policy.
+     * @param table Win table the policy was compiled for
+     * @param rank Hand rank
+     * @param numHands Number of hands still in
+     * @param raise Amount to call
+     * @param cover Bankroll less the raise
+     * @return Index
+     */
+    public static int index(WinTable table, int rank, int numHands, int raise, int cover) {
+        int entry = numHands * table.getNumRanks() + rank - table.getMinRank();
+
+        return (entry * 2 + Integer.signum(raise)) * NUM_COVERS + Integer.signum(cover) + 1;
+    }
+
+    /**
+     * Looks up the win probabilities of a batch of cards.
+     * @param table Win table
+     * @param numHands Number of hands still in
+     * @param ranks Card ranks
+     * @param wps Win probabilities out
+     * @param count Number of cards
+     */
+    public static void winProbabilities(WinTable table, int numHands, int[] ranks, double[] wps, int count) {
+        for(int k=0; k < count; k++)
+            wps[k] = table.get(numHands, ranks[k]);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.player;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * This class makes players by name and keeps the ones done with a table
+ * for the next one.<p>
+ * A name is either one a PlayerProvider registered or the class name of a
+ * player with a public no-arg constructor. A class is looked up once and
+ * its constructor turned into a Supplier, so making a player afterwards
+ * costs no more than new. The constructors are shared by everyone; the
+ * players kept for reuse are not, so each thread should have its own
+ * factory.
+ * @author Ron.Coleman
+ */
+public class PlayerFactory {
+    // Constructors by name
+    private final static ConcurrentHashMap<String, Supplier<AbstractPlayer>> constructors = new ConcurrentHashMap<>();
+
+    static {
+        for(PlayerProvider provider: ServiceLoader.load(PlayerProvider.class))
+            constructors.put(provider.getName(), provider::newPlayer);
+    }
+
+    // Players free for the next table by name
+    protected final HashMap<String, ArrayDeque<AbstractPlayer>> free = new HashMap<>();
+
+    /**
+     * Registers a constructor for a name, replacing any there.
+     * @param name Name in the config file
+     * @param constructor Constructor
+     */
+    public static void register(String name, Supplier<AbstractPlayer> constructor) {
+        constructors.put(name, constructor);
+    }
+
+    /**
+     * Gets the constructor of a name, looking up the class the first time.
+     * @param name Name in the config file
+     * @return Constructor
+     * @throws IllegalArgumentException if there's no such player
+     */
+    public static Supplier<AbstractPlayer> getConstructor(String name) {
+        return constructors.computeIfAbsent(name, PlayerFactory::resolve);
+    }
+
+    /**
+     * Turns the no-arg constructor of a player class into a Supplier.
+     * @param className Class name
+     * @return Constructor
+     * @throws IllegalArgumentException if there's no such player
+     */
+    @SuppressWarnings("unchecked")
+    protected static Supplier<AbstractPlayer> resolve(String className) {
+        try {
+            Class<?> clazz = Class.forName(className);
+
+            if(!AbstractPlayer.class.isAssignableFrom(clazz))
+                throw new IllegalArgumentException(className+" is not a player");
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            MethodHandle constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        constructor, MethodType.methodType(clazz));
+
+                return (Supplier<AbstractPlayer>) (Supplier<?>) site.getTarget().invokeExact();
+
+            } catch (Throwable ex) {
+                // Call the handle if no lambda can be made, e.g., for
+                // a class of some other class loader
+                MethodHandle handle = constructor.asType(MethodType.methodType(AbstractPlayer.class));
+
+                return () -> {
+                    try {
+                        return (AbstractPlayer) handle.invokeExact();
+
+                    } catch (Throwable cause) {
+                        throw new IllegalStateException(cause);
+                    }
+                };
+            }
+
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalArgumentException("no player "+className, ex);
+        }
+    }
+
+    /**
+     * Gets a player, reusing one done with its last table if there is one.
+     * @param name Name in the config file
+     * @return Player not yet seated
+     */
+    public AbstractPlayer newPlayer(String name) {
+        ArrayDeque<AbstractPlayer> players = free.get(name);
+
+        if(players != null && !players.isEmpty())
+            return players.pop();
+
+        return getConstructor(name).get();
+    }
+
+    /**
+     * Takes back a player done with its table.
+     * @param name Name the player was made by
+     * @param player Player
+     */
+    public void recycle(String name, AbstractPlayer player) {
+        player.leave();
+
+        free.computeIfAbsent(name, (k) -> new ArrayDeque<>()).push(player);
+    }
+}
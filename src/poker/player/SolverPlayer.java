@@ -0,0 +1,120 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.player;
+
+import java.util.SplittableRandom;
+import poker.GameEngine;
+import poker.solver.CfrSolver;
+import poker.solver.InfoSets;
+import poker.solver.Policy;
+import poker.solver.PolicyCache;
+import poker.util.Action;
+
+/**
+ * This class plays the strategy solved by CfrSolver for its table.<p>
+ * The policy for the deck and the number of seats comes from PolicyCache
+ * when the player sits. Each decision looks up the information set, i.e.,
+ * the player's card, the round, the players still in, and whether it's
+ * opening, facing a raise, or calling, and picks an action with the
+ * policy's probabilities, drawn from a stream split off the table's deck so
+ * a seeded deck reproduces the game. A hand of more than one card plays its highest
+ * card.
+ * @author Ron.Coleman
+ */
+public class SolverPlayer extends AbstractPlayer {
+    protected Policy policy;
+
+    // Round of the game starting from zero
+    protected int round = -1;
+
+    // Random stream for mixing the actions or null until the first
+    // decision at the table
+    protected SplittableRandom random;
+
+    /**
+     * Constructor
+     */
+    public SolverPlayer() {
+        super(0, 0);
+    }
+
+    /**
+     * Sits the player at a table and gets the policy for it.
+     * @param table Table
+     * @param seat Seat number starting from zero
+     */
+    @Override
+    public void sit(GameEngine table, int seat) {
+        super.sit(table, seat);
+
+        // Split off the deck's stream at the first decision as runners
+        // seed the deck after seating the players
+        random = null;
+
+        policy = PolicyCache.get(table.getDeck().getWinTable(), table.getPlayers().size(), CfrSolver.RAISE_CAP);
+    }
+
+    /**
+     * Resets the hand and the round for a new game.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+
+        round = -1;
+    }
+
+    /**
+     * Gets an action from the policy.
+     * @param raise Inbound raise
+     * @return Action
+     */
+    @Override
+    public Action getAction(int raise) {
+        int kind;
+
+        // The first pass of a round clears the last action first
+        if(lastAction == Action.NONE) {
+            round++;
+
+            kind = raise > 0 ? InfoSets.PENDING : InfoSets.OPEN;
+        }
+        else
+            kind = InfoSets.CALL;
+
+        int rank = hand.getCardRank(hand.size() - 1);
+
+        int index = policy.getInfoSets().index(kind, round, table.getNumPlayers(), rank);
+
+        if(random == null)
+            random = table.getDeck().split();
+
+        switch(policy.sample(index, random.nextDouble())) {
+            case RAISE:
+                return raise();
+
+            case CHECK:
+                return check();
+
+            default:
+                return fold();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.player;
+
+/**
+ * This class implements a bot player with thresholds set at run time, for
+ * instance to sweep alpha and beta.
+ * @author Ron.Coleman
+ */
+public class Threshold extends AbstractPlayer {
+    /**
+     * Constructor
+     */
+    public Threshold() {
+        super(0, 0);
+    }
+
+    /**
+     * Constructor
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     */
+    public Threshold(double alpha, double beta) {
+        super(alpha, beta);
+    }
+
+    /**
+     * Sets the thresholds.
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     */
+    public void setThresholds(double alpha, double beta) {
+        this.alpha = alpha;
+
+        this.beta = beta;
+
+        // Compile the policy again for the new thresholds
+        policyTable = null;
+    }
+}
@@ -0,0 +1,563 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import poker.card.WinTable;
+import poker.util.Action;
+
+/**
+ * This class solves Poughkeepsie hold'em for near-equilibrium strategies
+ * with counterfactual regret minimization.<p>
+ * Usage: CfrSolver [seats [raiseCap [iterations [threads [seed]]]]]<p>
+ * The game is the one GameEngine plays in units of the minimum bet: every
+ * seat antes and gets one card. In the first pass of a round each player
+ * in seat order checks, raises, or folds, and if anyone raised, the second
+ * pass asks the others to call or fold. Rounds go on while someone raises
+ * up to the raise cap, and the best card splits the pot. A player who
+ * folds stays out.<p>
+ * An iteration deals the cards and walks the tree once per seat with
+ * external sampling: the walking seat tries every action while the others
+ * sample theirs from the current strategy. Regrets are kept as in CFR+,
+ * clipped at zero, and the strategy sums are weighted by batch. Each batch
+ * the workers walk their own deals against the same regrets and add their
+ * changes into their own arrays, which are merged when they're done, so
+ * the results depend only on the seed and number of threads.
+ * @author Ron.Coleman
+ */
+public class CfrSolver {
+    /** Default most rounds with raises */
+    public final static int RAISE_CAP = 2;
+
+    /** Default number of iterations */
+    public final static int ITERATIONS = 200000;
+
+    /** Iterations per worker per batch */
+    public final static int BATCH = 1000;
+
+    // Deck the cards are dealt from
+    protected final WinTable deck;
+
+    // Number of seats
+    protected final int numSeats;
+
+    // Layout of the information sets
+    protected final InfoSets infoSets;
+
+    // Number of worker threads
+    protected final int numThreads;
+
+    // Root of the random streams split off to the workers
+    protected final SplittableRandom random;
+
+    // Cumulative regrets and weighted strategy sums indexed by
+    // information set * NUM_ACTIONS + action value
+    protected final double[] regrets;
+    protected final double[] sums;
+
+    // Iterations and batches done so far
+    protected long iterations;
+    protected int batches;
+
+    /**
+     * Constructor
+     * @param deck Win table of the deck
+     * @param numSeats Number of seats
+     * @param raiseCap Most rounds with raises
+     * @param numThreads Number of worker threads
+     * @param seed Seed for the root random stream
+     */
+    public CfrSolver(WinTable deck, int numSeats, int raiseCap, int numThreads, long seed) {
+        this.deck = deck;
+
+        this.numSeats = numSeats;
+
+        this.infoSets = new InfoSets(deck.getMinRank(), deck.getNumRanks(), numSeats, raiseCap);
+
+        this.numThreads = numThreads;
+
+        this.random = new SplittableRandom(seed);
+
+        this.regrets = new double[infoSets.size() * InfoSets.NUM_ACTIONS];
+
+        this.sums = new double[regrets.length];
+    }
+
+    // Launch point for the solver
+    public static void main(String[] args) {
+        int numSeats = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        int raiseCap = args.length > 1 ? Integer.parseInt(args[1]) : RAISE_CAP;
+
+        int numIterations = args.length > 2 ? Integer.parseInt(args[2]) : ITERATIONS;
+
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        if(args.length > 3)
+            numThreads = Integer.parseInt(args[3]);
+
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        CfrSolver solver = new CfrSolver(WinTable.getStandard(), numSeats, raiseCap, numThreads, seed);
+
+        long t0 = System.nanoTime();
+
+        Policy policy = solver.solve(numIterations);
+
+        System.out.printf("%d iterations, avg regret %.6f, %.1f s\n",solver.getIterations(),solver.getAverageRegret(),(System.nanoTime() - t0) / 1e9);
+
+        solver.report(policy);
+
+        PolicyCache.put(WinTable.getStandard(), policy);
+    }
+
+    /**
+     * Runs the iterations in batches spread over the worker threads.
+     * @param numIterations Number of iterations
+     * @return Average strategy
+     * @throws IllegalStateException if a worker fails or the solve is
+     * interrupted, with the failure as its cause
+     */
+    public Policy solve(int numIterations) {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+
+        ArrayList<Walker> walkers = new ArrayList<>();
+
+        for(int k=0; k < numThreads; k++)
+            walkers.add(new Walker(random.split()));
+
+        long t0 = System.nanoTime();
+
+        int reports = 0;
+
+        try {
+            while(iterations < numIterations) {
+                ArrayList<Future<Walker>> futures = new ArrayList<>();
+
+                for(Walker walker: walkers) {
+                    walker.count = (int) Math.min(BATCH, (numIterations - iterations + numThreads - 1) / numThreads);
+
+                    futures.add(pool.submit(walker));
+                }
+
+                for(Future<Walker> future: futures)
+                    future.get();
+
+                merge(walkers);
+
+                // Log about ten times along the way
+                if(iterations * 10 >= (long) numIterations * (reports + 1) || iterations >= numIterations) {
+                    reports++;
+
+                    Logger logger = Logger.getLogger(CfrSolver.class.getName());
+
+                    if(logger.isLoggable(Level.FINE))
+                        logger.fine(String.format("%d iterations, avg regret %.6f, %.1f s",
+                                iterations,getAverageRegret(),(System.nanoTime() - t0) / 1e9));
+                }
+            }
+        } catch (ExecutionException ex) {
+            // A partly solved policy would pass for a solved one so don't return it
+            pool.shutdownNow();
+
+            throw new IllegalStateException("walker failed", ex.getCause());
+
+        } catch (InterruptedException ex) {
+            pool.shutdownNow();
+
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("interrupted", ex);
+
+        } finally {
+            pool.shutdown();
+        }
+
+        return getPolicy();
+    }
+
+    /**
+     * Adds the workers' changes into the tables.
+     * @param walkers Workers
+     */
+    protected void merge(ArrayList<Walker> walkers) {
+        batches++;
+
+        for(Walker walker: walkers) {
+            for(int k=0; k < regrets.length; k++) {
+                regrets[k] += walker.regretDeltas[k];
+
+                sums[k] += batches * walker.sumDeltas[k];
+            }
+
+            iterations += walker.count;
+        }
+
+        // CFR+ forgets negative regret
+        for(int k=0; k < regrets.length; k++)
+            if(regrets[k] < 0)
+                regrets[k] = 0;
+    }
+
+    /**
+     * Gets the average over the information sets of the largest regret
+     * per iteration, which goes to zero as the strategy converges.
+     * @return Regret in minimum bets
+     */
+    public double getAverageRegret() {
+        double total = 0;
+
+        for(int info=0; info < infoSets.size(); info++) {
+            double max = 0;
+
+            for(int a=0; a < InfoSets.NUM_ACTIONS; a++)
+                max = Math.max(max, regrets[info * InfoSets.NUM_ACTIONS + a]);
+
+            total += max;
+        }
+
+        return iterations == 0 ? 0 : total / infoSets.size() / iterations;
+    }
+
+    /**
+     * Gets the average strategy, which is the one that converges. An
+     * information set never reached plays its allowed actions evenly.
+     * @return Policy
+     */
+    public Policy getPolicy() {
+        double[] probs = new double[sums.length];
+
+        for(int info=0; info < infoSets.size(); info++) {
+            int kind = info / (infoSets.size() / InfoSets.NUM_KINDS);
+
+            int numActions = InfoSets.getNumActions(kind);
+
+            int k = info * InfoSets.NUM_ACTIONS;
+
+            double total = 0;
+
+            for(int a=0; a < numActions; a++)
+                total += sums[k + a];
+
+            for(int a=0; a < numActions; a++)
+                probs[k + a] = total > 0 ? sums[k + a] / total : 1.0 / numActions;
+        }
+
+        return new Policy(infoSets, probs);
+    }
+
+    /**
+     * Display the policy of the first round by rank.
+     * @param policy Policy
+     */
+    public void report(Policy policy) {
+        String[] kinds = {"open", "pending", "call"};
+
+        System.out.printf("%-8s %4s %6s %6s %6s\n","round 1","rank","fold","check","raise");
+
+        for(int kind=0; kind < InfoSets.NUM_KINDS; kind++)
+            for(int r=0; r < infoSets.getNumRanks(); r++) {
+                int index = infoSets.index(kind, 0, numSeats, infoSets.getMinRank() + r);
+
+                System.out.printf("%-8s %4d %6.3f %6.3f %6.3f\n",kinds[kind],infoSets.getMinRank() + r,
+                        policy.get(index, Action.FOLD),policy.get(index, Action.CHECK),policy.get(index, Action.RAISE));
+            }
+    }
+
+    /**
+     * Gets the iterations done so far.
+     * @return Iterations
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * This class is the work of one thread for a batch: it deals and walks
+     * its iterations against the regrets of the last batch. All its state
+     * is allocated once.
+     */
+    protected class Walker implements Callable<Walker> {
+        protected final SplittableRandom random;
+
+        // Every card in the deck by rank
+        protected final int[] cards;
+
+        // State of the hand by seat
+        protected final int[] ranks = new int[numSeats];
+        protected final int[] paid = new int[numSeats];
+        protected final boolean[] folded = new boolean[numSeats];
+
+        // Round in which each seat last raised or -1
+        protected final int[] raisedRounds = new int[numSeats];
+
+        protected int numActive;
+
+        // Strategy and action values by depth of the walk
+        protected final double[][] strategies;
+        protected final double[][] values;
+
+        // Changes for the batch indexed like the tables
+        protected final double[] regretDeltas = new double[regrets.length];
+        protected final double[] sumDeltas = new double[regrets.length];
+
+        // Iterations for the batch
+        protected int count;
+
+        /**
+         * Constructor
+         * @param random Random stream for this worker only
+         */
+        protected Walker(SplittableRandom random) {
+            this.random = random;
+
+            cards = new int[WinTable.getNumCards(deck.getCopies())];
+
+            for(int k=0, r=0; r < deck.getNumRanks(); r++)
+                for(int c=0; c < deck.getCopies(deck.getMinRank() + r); c++)
+                    cards[k++] = deck.getMinRank() + r;
+
+            // A walk is at most two passes of decisions per round
+            int maxDepth = 2 * infoSets.getRaiseCap() * numSeats + 1;
+
+            strategies = new double[maxDepth][InfoSets.NUM_ACTIONS];
+
+            values = new double[maxDepth][InfoSets.NUM_ACTIONS];
+        }
+
+        /**
+         * Walks the batch.
+         * @return This worker
+         */
+        @Override
+        public Walker call() {
+            Arrays.fill(regretDeltas, 0);
+
+            Arrays.fill(sumDeltas, 0);
+
+            for(int iteration=0; iteration < count; iteration++) {
+                deal();
+
+                for(int seat=0; seat < numSeats; seat++)
+                    walk(seat, 0, 1, 0, 0, 0);
+            }
+
+            return this;
+        }
+
+        /**
+         * Deals a card to each seat and takes the antes.
+         */
+        protected void deal() {
+            for(int seat=0; seat < numSeats; seat++) {
+                int k = seat + random.nextInt(cards.length - seat);
+
+                int card = cards[k];
+                cards[k] = cards[seat];
+                cards[seat] = card;
+
+                ranks[seat] = card;
+                paid[seat] = 1;
+                folded[seat] = false;
+                raisedRounds[seat] = -1;
+            }
+
+            numActive = numSeats;
+        }
+
+        /**
+         * Walks the tree from the next player to act.
+         * @param walker Seat whose regrets are updated
+         * @param round Round starting from zero
+         * @param pass First or second pass
+         * @param seat First seat which may act next
+         * @param raises Raises in the first pass so far
+         * @param depth Depth of the walk
+         * @return Value to the walker in minimum bets
+         */
+        protected double walk(int walker, int round, int pass, int seat, int raises, int depth) {
+            if(numActive == 1)
+                return getPayoff(walker);
+
+            while(seat < numSeats && (folded[seat] || (pass == 2 && raisedRounds[seat] == round)))
+                seat++;
+
+            // End of the pass
+            if(seat == numSeats) {
+                if(pass == 1)
+                    return raises == 0 ? getPayoff(walker) : walk(walker, round, 2, 0, raises, depth);
+
+                if(round + 1 == infoSets.getRaiseCap())
+                    return getPayoff(walker);
+
+                return walk(walker, round + 1, 1, 0, 0, depth);
+            }
+
+            int kind = pass == 2 ? InfoSets.CALL : raises > 0 ? InfoSets.PENDING : InfoSets.OPEN;
+
+            int numActions = InfoSets.getNumActions(kind);
+
+            int k = infoSets.index(kind, round, numActive, ranks[seat]) * InfoSets.NUM_ACTIONS;
+
+            double[] strategy = strategies[depth];
+
+            match(k, numActions, strategy);
+
+            // Others sample an action and add to the average strategy
+            if(seat != walker) {
+                double u = random.nextDouble();
+
+                int a = 0;
+
+                for(; a < numActions - 1; a++) {
+                    u -= strategy[a];
+
+                    if(u < 0)
+                        break;
+                }
+
+                for(int b=0; b < numActions; b++)
+                    sumDeltas[k + b] += strategy[b];
+
+                return act(walker, round, pass, seat, raises, depth, a);
+            }
+
+            // The walker tries every action
+            double[] value = values[depth];
+
+            double nodeValue = 0;
+
+            for(int a=0; a < numActions; a++) {
+                value[a] = act(walker, round, pass, seat, raises, depth, a);
+
+                nodeValue += strategy[a] * value[a];
+            }
+
+            for(int a=0; a < numActions; a++)
+                regretDeltas[k + a] += value[a] - nodeValue;
+
+            return nodeValue;
+        }
+
+        /**
+         * Plays an action and walks on, then takes it back.
+         * @param walker Seat whose regrets are updated
+         * @param round Round starting from zero
+         * @param pass First or second pass
+         * @param seat Seat acting
+         * @param raises Raises in the first pass so far
+         * @param depth Depth of the walk
+         * @param action Action value
+         * @return Value to the walker in minimum bets
+         */
+        protected double act(int walker, int round, int pass, int seat, int raises, int depth, int action) {
+            double value;
+
+            if(action == Action.FOLD.value) {
+                folded[seat] = true;
+                numActive--;
+
+                value = walk(walker, round, pass, seat + 1, raises, depth + 1);
+
+                folded[seat] = false;
+                numActive++;
+            }
+            else if(action == Action.RAISE.value) {
+                int lastRound = raisedRounds[seat];
+
+                raisedRounds[seat] = round;
+                paid[seat]++;
+
+                value = walk(walker, round, pass, seat + 1, raises + 1, depth + 1);
+
+                raisedRounds[seat] = lastRound;
+                paid[seat]--;
+            }
+            else {
+                // A check in the second pass calls the raise
+                int call = pass == 2 ? 1 : 0;
+
+                paid[seat] += call;
+
+                value = walk(walker, round, pass, seat + 1, raises, depth + 1);
+
+                paid[seat] -= call;
+            }
+
+            return value;
+        }
+
+        /**
+         * Gets the current strategy from the positive regrets, or plays
+         * evenly if there are none.
+         * @param k Start of the information set in the tables
+         * @param numActions Number of actions allowed
+         * @param strategy Strategy
+         */
+        protected void match(int k, int numActions, double[] strategy) {
+            double total = 0;
+
+            for(int a=0; a < numActions; a++)
+                total += regrets[k + a];
+
+            for(int a=0; a < numActions; a++)
+                strategy[a] = total > 0 ? regrets[k + a] / total : 1.0 / numActions;
+        }
+
+        /**
+         * Gets what a seat won less what it paid, the best cards still in
+         * splitting the pot.
+         * @param seat Seat
+         * @return Payoff in minimum bets
+         */
+        protected double getPayoff(int seat) {
+            if(folded[seat])
+                return -paid[seat];
+
+            int pot = 0;
+            int best = -1;
+            int ties = 0;
+
+            for(int k=0; k < numSeats; k++) {
+                pot += paid[k];
+
+                if(folded[k])
+                    continue;
+
+                if(ranks[k] > best) {
+                    best = ranks[k];
+                    ties = 1;
+                }
+                else if(ranks[k] == best)
+                    ties++;
+            }
+
+            return ranks[seat] == best ? (double) pot / ties - paid[seat] : -paid[seat];
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.solver;
+
+/**
+ * This class lays out the information sets of the solver in flat arrays.<p>
+ * A player deciding knows their card, which round it is, how many players
+ * are still in, and whether they're opening the round, facing a raise in
+ * the first pass, or calling in the second pass. That's all the solver
+ * keeps, so a seat sees the same information set at the table as it did
+ * in the solver.
+ * @author Ron.Coleman
+ */
+public class InfoSets {
+    /** First pass with no raise yet */
+    public final static int OPEN = 0;
+
+    /** First pass facing a raise */
+    public final static int PENDING = 1;
+
+    /** Second pass calling the raise */
+    public final static int CALL = 2;
+
+    /** Number of kinds of decision */
+    public final static int NUM_KINDS = 3;
+
+    /** Number of actions, FOLD, CHECK, and RAISE by their values */
+    public final static int NUM_ACTIONS = 3;
+
+    protected final int minRank;
+    protected final int numRanks;
+    protected final int maxSeats;
+    protected final int raiseCap;
+
+    /**
+     * Constructor
+     * @param minRank Lowest rank
+     * @param numRanks Number of ranks
+     * @param maxSeats Number of seats
+     * @param raiseCap Most rounds with raises
+     */
+    public InfoSets(int minRank, int numRanks, int maxSeats, int raiseCap) {
+        this.minRank = minRank;
+
+        this.numRanks = numRanks;
+
+        this.maxSeats = maxSeats;
+
+        this.raiseCap = raiseCap;
+    }
+
+    /**
+     * Gets the index of an information set. Rounds past the cap and counts
+     * of players past the seats fall into the last ones.
+     * @param kind OPEN, PENDING, or CALL
+     * @param round Round starting from zero
+     * @param numActive Players still in
+     * @param rank Card rank
+     * @return Index
+     */
+    public int index(int kind, int round, int numActive, int rank) {
+        round = Math.min(round, raiseCap - 1);
+
+        numActive = Math.min(numActive, maxSeats);
+
+        return ((kind * raiseCap + round) * (maxSeats + 1) + numActive) * numRanks + rank - minRank;
+    }
+
+    /**
+     * Gets the number of information sets.
+     * @return Integer
+     */
+    public int size() {
+        return NUM_KINDS * raiseCap * (maxSeats + 1) * numRanks;
+    }
+
+    /**
+     * Gets the number of actions allowed for a kind of decision, i.e., no
+     * raise when calling.
+     * @param kind OPEN, PENDING, or CALL
+     * @return Integer
+     */
+    public static int getNumActions(int kind) {
+        return kind == CALL ? NUM_ACTIONS - 1 : NUM_ACTIONS;
+    }
+
+    /**
+     * Gets the lowest rank.
+     * @return Rank
+     */
+    public int getMinRank() {
+        return minRank;
+    }
+
+    /**
+     * Gets the number of ranks.
+     * @return Integer
+     */
+    public int getNumRanks() {
+        return numRanks;
+    }
+
+    /**
+     * Gets the number of seats.
+     * @return Integer
+     */
+    public int getMaxSeats() {
+        return maxSeats;
+    }
+
+    /**
+     * Gets the most rounds with raises.
+     * @return Integer
+     */
+    public int getRaiseCap() {
+        return raiseCap;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.solver;
+
+import poker.util.Action;
+
+/**
+ * This class holds a solved strategy, the probability of each action in
+ * each information set, in one flat array.
+ * @author Ron.Coleman
+ */
+public class Policy {
+    protected final InfoSets infoSets;
+
+    // Probabilities indexed by information set * NUM_ACTIONS + action value
+    protected final double[] probs;
+
+    /**
+     * Constructor
+     * @param infoSets Layout of the information sets
+     * @param probs Probabilities indexed by information set * NUM_ACTIONS + action value
+     */
+    public Policy(InfoSets infoSets, double[] probs) {
+        this.infoSets = infoSets;
+
+        this.probs = probs;
+    }
+
+    /**
+     * Gets the probability of an action.
+     * @param index Information set
+     * @param action Action
+     * @return Probability
+     */
+    public double get(int index, Action action) {
+        return probs[index * InfoSets.NUM_ACTIONS + action.value];
+    }
+
+    /**
+     * Picks an action. The probabilities are scaled by their sum so that
+     * rounding in a file never picks an action that isn't allowed, e.g.,
+     * a raise in the second pass.
+     * @param index Information set
+     * @param u Uniform random number in [0, 1)
+     * @return Action
+     */
+    public Action sample(int index, double u) {
+        int k = index * InfoSets.NUM_ACTIONS;
+
+        double fold = probs[k + Action.FOLD.value];
+
+        double check = fold + probs[k + Action.CHECK.value];
+
+        double x = u * (check + probs[k + Action.RAISE.value]);
+
+        if(x < fold)
+            return Action.FOLD;
+
+        if(x < check || probs[k + Action.RAISE.value] <= 0)
+            return Action.CHECK;
+
+        return Action.RAISE;
+    }
+
+    /**
+     * Gets the layout of the information sets.
+     * @return Information sets
+     */
+    public InfoSets getInfoSets() {
+        return infoSets;
+    }
+}
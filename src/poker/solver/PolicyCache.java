@@ -0,0 +1,291 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import poker.card.WinTable;
+
+/**
+ * This class caches the solved policies in memory and on disk the way
+ * WinTableCache does the win tables.<p>
+ * A policy is keyed by its deck, the number of seats, and the raise cap.
+ * One that isn't on disk is solved with the default iterations on all
+ * cores and written for next time; run CfrSolver to solve one ahead of
+ * time or with more iterations. The solve runs outside the map so that
+ * other keys aren't held up; callers asking for the same key meanwhile
+ * wait on it.
+ * <pre>
+ * file (big-endian)
+ *   int    MAGIC
+ *   short  VERSION
+ *   int    lowest rank
+ *   int    number of ranks, n
+ *   int[n] copies of each rank
+ *   int    seats
+ *   int    raise cap
+ *   double[] probabilities by information set and action
+ * </pre>
+ * @author Ron.Coleman
+ */
+public class PolicyCache {
+    /** Magic number, "PKCF" */
+    public final static int MAGIC = 0x504b4346;
+
+    /** Format version */
+    public final static short VERSION = 1;
+
+    /** Directory of the policy files, the same as the win tables */
+    public final static String DIR = System.getProperty("poker.tables", "tables");
+
+    /** Seed of the solver for policies not on disk */
+    public final static long SEED = 0;
+
+    // Policies loaded or being loaded so far by key
+    private final static ConcurrentHashMap<String, FutureTask<Policy>> policies = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a policy from memory, from its file, or by solving it.
+     * @param deck Win table of the deck
+     * @param numSeats Number of seats
+     * @param raiseCap Most rounds with raises
+     * @return Policy
+     */
+    public static Policy get(WinTable deck, int numSeats, int raiseCap) {
+        String key = getKey(deck, numSeats, raiseCap);
+
+        FutureTask<Policy> task = policies.get(key);
+
+        if(task == null) {
+            FutureTask<Policy> loader = new FutureTask<>(() -> load(deck, numSeats, raiseCap));
+
+            task = policies.putIfAbsent(key, loader);
+
+            // Only the thread that placed the loader runs it
+            if(task == null) {
+                task = loader;
+
+                task.run();
+            }
+        }
+
+        try {
+            return task.get();
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("interrupted waiting for policy "+key, ex);
+
+        } catch (ExecutionException ex) {
+            // Let the next caller try again
+            policies.remove(key, task);
+
+            throw new IllegalStateException("policy "+key+" failed to load", ex.getCause());
+        }
+    }
+
+    /**
+     * Puts a policy in memory and on disk, replacing any there.
+     * @param deck Win table of the deck
+     * @param policy Policy
+     */
+    public static void put(WinTable deck, Policy policy) {
+        InfoSets infoSets = policy.getInfoSets();
+
+        FutureTask<Policy> task = new FutureTask<>(() -> policy);
+
+        task.run();
+
+        policies.put(getKey(deck, infoSets.getMaxSeats(), infoSets.getRaiseCap()), task);
+
+        File file = getFile(deck, infoSets.getMaxSeats(), infoSets.getRaiseCap());
+
+        try {
+            write(deck, policy, file);
+
+            Logger.getLogger(PolicyCache.class.getName()).log(Level.INFO, "wrote {0}", file);
+
+        } catch (IOException ex) {
+            Logger.getLogger(PolicyCache.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Gets the key of a policy.
+     * @param deck Win table of the deck
+     * @param numSeats Number of seats
+     * @param raiseCap Most rounds with raises
+     * @return Key
+     */
+    protected static String getKey(WinTable deck, int numSeats, int raiseCap) {
+        return deck.getMinRank()+":"+Arrays.toString(deck.getCopies())+":"+numSeats+":"+raiseCap;
+    }
+
+    /**
+     * Loads a policy from its file or else solves and persists it.
+     * @param deck Win table of the deck
+     * @param numSeats Number of seats
+     * @param raiseCap Most rounds with raises
+     * @return Policy
+     * @throws IllegalStateException if the solve fails, in which case
+     * nothing is written
+     */
+    protected static Policy load(WinTable deck, int numSeats, int raiseCap) {
+        File file = getFile(deck, numSeats, raiseCap);
+
+        if(file.exists()) {
+            try {
+                Policy policy = read(file, deck, numSeats, raiseCap);
+
+                if(policy != null)
+                    return policy;
+
+            } catch (IOException | BufferUnderflowException ex) {
+                Logger.getLogger(PolicyCache.class.getName()).log(Level.WARNING, null, ex);
+            }
+        }
+
+        CfrSolver solver = new CfrSolver(deck, numSeats, raiseCap, Runtime.getRuntime().availableProcessors(), SEED);
+
+        Policy policy = solver.solve(CfrSolver.ITERATIONS);
+
+        try {
+            write(deck, policy, file);
+
+        } catch (IOException ex) {
+            // We still have the policy, just not for next time
+            Logger.getLogger(PolicyCache.class.getName()).log(Level.WARNING, null, ex);
+        }
+
+        return policy;
+    }
+
+    /**
+     * Gets the file of a policy.
+     * @param deck Win table of the deck
+     * @param numSeats Number of seats
+     * @param raiseCap Most rounds with raises
+     * @return File
+     */
+    public static File getFile(WinTable deck, int numSeats, int raiseCap) {
+        int hash = 31 * (31 * (31 * deck.getMinRank() + Arrays.hashCode(deck.getCopies())) + numSeats) + raiseCap;
+
+        return new File(DIR, String.format("policy-%08x.bin", hash));
+    }
+
+    /**
+     * Reads a policy by mapping its file.
+     * @param file File
+     * @param deck Win table of the deck expected
+     * @param numSeats Number of seats expected
+     * @param raiseCap Raise cap expected
+     * @return Policy or null if the file is for some other policy
+     * @throws IOException
+     */
+    protected static Policy read(File file, WinTable deck, int numSeats, int raiseCap) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+
+        if(buffer.getInt() != MAGIC || buffer.getShort() != VERSION)
+            return null;
+
+        // The file name is a hash so check the whole key
+        int[] copies = deck.getCopies();
+
+        if(buffer.getInt() != deck.getMinRank() || buffer.getInt() != copies.length)
+            return null;
+
+        for(int count: copies)
+            if(buffer.getInt() != count)
+                return null;
+
+        if(buffer.getInt() != numSeats || buffer.getInt() != raiseCap)
+            return null;
+
+        InfoSets infoSets = new InfoSets(deck.getMinRank(), copies.length, numSeats, raiseCap);
+
+        double[] probs = new double[infoSets.size() * InfoSets.NUM_ACTIONS];
+
+        if(buffer.remaining() != probs.length * Double.BYTES)
+            return null;
+
+        buffer.asDoubleBuffer().get(probs);
+
+        return new Policy(infoSets, probs);
+    }
+
+    /**
+     * Writes a policy to a temporary file and moves it into place so
+     * readers never see part of a policy.
+     * @param deck Win table of the deck
+     * @param policy Policy
+     * @param file File
+     * @throws IOException
+     */
+    protected static void write(WinTable deck, Policy policy, File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+
+        dir.mkdirs();
+
+        File temp = File.createTempFile("policy", ".tmp", dir);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(deck.getMinRank());
+            out.writeInt(deck.getNumRanks());
+
+            for(int count: deck.getCopies())
+                out.writeInt(count);
+
+            out.writeInt(policy.infoSets.getMaxSeats());
+            out.writeInt(policy.infoSets.getRaiseCap());
+
+            for(double prob: policy.probs)
+                out.writeDouble(prob);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException ex) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
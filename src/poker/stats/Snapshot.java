@@ -0,0 +1,100 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.stats;
+
+/**
+ * This class holds the counts of the statistics by seat at one moment.
+ * @author Ron.Coleman
+ */
+public class Snapshot {
+    // Counters indexed by seat * NUM_COUNTERS + counter
+    protected final long[] totals;
+
+    /**
+     * Constructor
+     * @param totals Counters by seat
+     */
+    public Snapshot(long[] totals) {
+        this.totals = totals;
+    }
+
+    /**
+     * Gets a count.
+     * @param seat Seat
+     * @param counter Counter
+     * @return Count
+     */
+    public long get(int seat, int counter) {
+        return totals[seat * Statistics.NUM_COUNTERS + counter];
+    }
+
+    /**
+     * Gets the number of seats.
+     * @return Integer
+     */
+    public int getNumSeats() {
+        return totals.length / Statistics.NUM_COUNTERS;
+    }
+
+    /**
+     * Gets the games won.
+     * @param seat Seat
+     * @return Count
+     */
+    public long getWins(int seat) {
+        return get(seat, Statistics.WINS);
+    }
+
+    /**
+     * Gets the chips won in pots.
+     * @param seat Seat
+     * @return Chips
+     */
+    public long getPots(int seat) {
+        return get(seat, Statistics.POTS);
+    }
+
+    /**
+     * Gets the folds.
+     * @param seat Seat
+     * @return Count
+     */
+    public long getFolds(int seat) {
+        return get(seat, Statistics.FOLDS);
+    }
+
+    /**
+     * Gets the raises.
+     * @param seat Seat
+     * @return Count
+     */
+    public long getRaises(int seat) {
+        return get(seat, Statistics.RAISES);
+    }
+
+    /**
+     * Gets the bankrolls recorded at the end of the matches.
+     * @param seat Seat
+     * @return Chips
+     */
+    public long getBankrolls(int seat) {
+        return get(seat, Statistics.BANKROLLS);
+    }
+}
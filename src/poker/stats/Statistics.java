@@ -0,0 +1,167 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class collects the win, pot, fold, raise, and bankroll counts by
+ * seat for any number of tables in one primitive array.<p>
+ * Like LongAdder, the counts are striped: each thread adds to its own
+ * stripe, picked by thread id, so tables on different threads don't
+ * contend for the same cache line. A snapshot sums the stripes.
+ * @author Ron.Coleman
+ */
+public class Statistics {
+    // Counters per seat
+    public final static int WINS = 0;
+    public final static int POTS = 1;
+    public final static int FOLDS = 2;
+    public final static int RAISES = 3;
+    public final static int BANKROLLS = 4;
+    public final static int NUM_COUNTERS = 5;
+
+    // Longs in a cache line
+    private final static int LINE = 8;
+
+    protected final int numSeats;
+
+    // Stripe count less one, a power of two less one
+    protected final int mask;
+
+    // Longs per stripe padded to whole cache lines plus one to keep
+    // neighboring stripes apart
+    protected final int stride;
+
+    // Counters indexed by stripe * stride + seat * NUM_COUNTERS + counter
+    protected final AtomicLongArray cells;
+
+    /**
+     * Constructor with a stripe for each processor.
+     * @param numSeats Number of seats
+     */
+    public Statistics(int numSeats) {
+        this(numSeats, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     * @param numSeats Number of seats
+     * @param numStripes Number of stripes, rounded up to a power of two
+     */
+    public Statistics(int numSeats, int numStripes) {
+        this.numSeats = numSeats;
+
+        int stripes = numStripes <= 1 ? 1 : Integer.highestOneBit(numStripes - 1) << 1;
+
+        this.mask = stripes - 1;
+
+        int size = numSeats * NUM_COUNTERS;
+
+        this.stride = (size + LINE - 1) / LINE * LINE + LINE;
+
+        this.cells = new AtomicLongArray(stripes * stride);
+    }
+
+    /**
+     * Adds to a counter in the calling thread's stripe.
+     * @param seat Seat
+     * @param counter Counter
+     * @param delta Amount to add
+     */
+    public void add(int seat, int counter, long delta) {
+        int stripe = (int) Thread.currentThread().getId() & mask;
+
+        cells.getAndAdd(stripe * stride + seat * NUM_COUNTERS + counter, delta);
+    }
+
+    /**
+     * Records a win.
+     * @param seat Seat of the winner
+     * @param pot Pot in chips
+     */
+    public void won(int seat, int pot) {
+        add(seat, WINS, 1);
+
+        add(seat, POTS, pot);
+    }
+
+    /**
+     * Records a fold.
+     * @param seat Seat
+     */
+    public void folded(int seat) {
+        add(seat, FOLDS, 1);
+    }
+
+    /**
+     * Records a raise.
+     * @param seat Seat
+     */
+    public void raised(int seat) {
+        add(seat, RAISES, 1);
+    }
+
+    /**
+     * Records a bankroll at the end of a match.
+     * @param seat Seat
+     * @param bankroll Bankroll in chips
+     */
+    public void banked(int seat, int bankroll) {
+        add(seat, BANKROLLS, bankroll);
+    }
+
+    /**
+     * Sums the stripes. Counts still being added may or may not be in it.
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        long[] totals = new long[numSeats * NUM_COUNTERS];
+
+        for(int base=0; base < cells.length(); base += stride)
+            for(int k=0; k < totals.length; k++)
+                totals[k] += cells.get(base + k);
+
+        return new Snapshot(totals);
+    }
+
+    /**
+     * Gets a count summed over the stripes.
+     * @param seat Seat
+     * @param counter Counter
+     * @return Count
+     */
+    public long get(int seat, int counter) {
+        long sum = 0;
+
+        for(int base=0; base < cells.length(); base += stride)
+            sum += cells.get(base + seat * NUM_COUNTERS + counter);
+
+        return sum;
+    }
+
+    /**
+     * Gets the number of seats.
+     * @return Integer
+     */
+    public int getNumSeats() {
+        return numSeats;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.util;
+
+/**
+ * This class calculates confidence intervals.
+ * @author Ron.Coleman
+ */
+public class Confidence {
+    /** Normal quantile for 95% confidence */
+    public final static double Z95 = 1.96;
+
+    /**
+     * Gets the center of the Wilson score interval of a proportion.
+     * @param successes Number of successes
+     * @param trials Number of trials
+     * @param z Normal quantile
+     * @return Center
+     */
+    public static double getWilsonCenter(long successes, long trials, double z) {
+        if(trials == 0)
+            return 0.5;
+
+        double p = (double) successes / trials;
+
+        double z2n = z * z / trials;
+
+        return (p + z2n / 2) / (1 + z2n);
+    }
+
+    /**
+     * Gets the half-width of the Wilson score interval of a proportion.
+     * @param successes Number of successes
+     * @param trials Number of trials
+     * @param z Normal quantile
+     * @return Half-width
+     */
+    public static double getWilsonHalfWidth(long successes, long trials, double z) {
+        if(trials == 0)
+            return 0.5;
+
+        double p = (double) successes / trials;
+
+        double z2n = z * z / trials;
+
+        return z * Math.sqrt(p * (1 - p) / trials + z2n / (4 * trials)) / (1 + z2n);
+    }
+
+    /**
+     * Gets the half-width of the normal interval of a mean.
+     * @param sum Sum of the samples
+     * @param sumSquares Sum of the squares of the samples
+     * @param n Number of samples
+     * @param z Normal quantile
+     * @return Half-width or infinity if there are fewer than two samples
+     */
+    public static double getNormalHalfWidth(double sum, double sumSquares, long n, double z) {
+        if(n < 2)
+            return Double.POSITIVE_INFINITY;
+
+        double mean = sum / n;
+
+        double variance = Math.max(sumSquares - n * mean * mean, 0) / (n - 1);
+
+        return z * Math.sqrt(variance / n);
+    }
+}
@@ -0,0 +1,567 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.util;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import poker.card.Card;
+import poker.card.HandEvaluator;
+import poker.card.IDeck;
+import poker.card.Ranking;
+import poker.card.Shoe;
+import poker.event.GameEventListener;
+import poker.event.ListenerList;
+import poker.event.NullListener;
+import poker.player.AbstractPlayer;
+import poker.player.PlayerFactory;
+
+/**
+ * This class holds one configuration of the game read from a config file.
+ * It never changes once it's loaded so any number of tables and threads
+ * can share it, and it makes the decks, players, and sinks of a table.<p>
+ * A config file may have "profiles", each one a set of keys which replace
+ * the ones at the top of the file, e.g.,
+ * <pre>
+ * "profiles": { "bots": { "players": [ ... ], "listeners": [] } }
+ * </pre>
+ * The mains load the file of the poker.config system property, by default
+ * pokpoker.json, with the profile of the poker.profile property, if any.
+ * @author Ron.Coleman
+ */
+public class GameConfig {
+    /** Default path of the config file */
+    public final static String CONFIG_PATH = "pokpoker.json";
+
+    protected final String profile;
+    protected final int numGames;
+    protected final int bank;
+    protected final int minBet;
+    protected final boolean debug;
+
+    /** Seed for the deck or null to seed at random */
+    protected final Long seed;
+
+    protected final String deckClassName;
+    protected final List<String> playerClassNames;
+
+    /** Constructors of the deck and of the players by seat, looked up once */
+    protected final MethodHandle deckConstructor;
+    protected final List<Supplier<AbstractPlayer>> playerConstructors;
+
+    /** Game event sinks, each a class name and a path or null */
+    protected final List<String> listenerClassNames;
+    protected final List<String> listenerPaths;
+
+    /** Constructors of the sinks with their paths bound, looked up once */
+    protected final List<MethodHandle> listenerConstructors;
+
+    /** Cards in a hand and the rule for ranking more than one */
+    protected final int cards;
+    protected final Ranking ranking;
+
+    /** Evaluator for hands of more than one card or null for one card */
+    protected final HandEvaluator evaluator;
+
+    /** Shoe decks, copies of each rank from 2 up, and penetration or 0 decks for no shoe */
+    protected final int shoeDecks;
+    protected final int[] shoeCopies;
+    protected final double shoePenetration;
+
+    protected final TieRule tieRule;
+
+    /** Metrics port or -1, file or null, and seconds between writes of the file */
+    protected final int metricsPort;
+    protected final String metricsPath;
+    protected final int metricsPeriod;
+
+    /**
+     * Constructor
+     * @param json Keys of the file with those of the profile, if any
+     * @param profile Profile or null
+     * @throws IllegalArgumentException if a class can't be found
+     */
+    protected GameConfig(JSONObject json, String profile) {
+        this.profile = profile;
+
+        numGames = ((Long) json.get("numGames")).intValue();
+
+        bank = ((Long) json.get("bank")).intValue();
+
+        minBet = ((Long) json.get("minBet")).intValue();
+
+        debug = Boolean.TRUE.equals(json.get("debug"));
+
+        seed = (Long) json.get("seed");
+
+        deckClassName = (String) json.get("deck");
+
+        // Get the player class names
+        ArrayList<String> names = new ArrayList<>();
+
+        for(Object player: (JSONArray) json.get("players"))
+            names.add((String) ((JSONObject) player).get("player"));
+
+        playerClassNames = Collections.unmodifiableList(names);
+
+        // Get the game event sinks, if any
+        ArrayList<String> listeners = new ArrayList<>();
+        ArrayList<String> paths = new ArrayList<>();
+
+        JSONArray listenersArray = (JSONArray) json.get("listeners");
+
+        if(listenersArray != null)
+            for(Object listener: listenersArray) {
+                listeners.add((String) ((JSONObject) listener).get("listener"));
+
+                paths.add((String) ((JSONObject) listener).get("path"));
+            }
+
+        listenerClassNames = Collections.unmodifiableList(listeners);
+
+        listenerPaths = Collections.unmodifiableList(paths);
+
+        // Get the hand rules, if any
+        Long numCards = (Long) json.get("cards");
+
+        cards = numCards == null ? 1 : numCards.intValue();
+
+        String rankingName = (String) json.get("ranking");
+
+        ranking = rankingName == null ? Ranking.HIGH : Ranking.valueOf(rankingName);
+
+        String ties = (String) json.get("ties");
+
+        tieRule = ties == null ? TieRule.SPLIT : TieRule.valueOf(ties);
+
+        // Get the shoe, if any
+        JSONObject shoe = (JSONObject) json.get("shoe");
+
+        if(shoe == null) {
+            shoeDecks = 0;
+            shoeCopies = null;
+            shoePenetration = 0;
+        }
+        else {
+            Long decks = (Long) shoe.get("decks");
+
+            shoeDecks = decks == null ? 1 : decks.intValue();
+
+            shoeCopies = parseCopies(shoe.get("copies"));
+
+            Number penetration = (Number) shoe.get("penetration");
+
+            shoePenetration = penetration == null ? Shoe.PENETRATION : penetration.doubleValue();
+        }
+
+        // Get the metrics, if any
+        JSONObject metrics = (JSONObject) json.get("metrics");
+
+        Long port = metrics == null ? null : (Long) metrics.get("port");
+
+        metricsPort = port == null ? -1 : port.intValue();
+
+        metricsPath = metrics == null ? null : (String) metrics.get("path");
+
+        Long period = metrics == null ? null : (Long) metrics.get("period");
+
+        metricsPeriod = period == null ? 10 : period.intValue();
+
+        // Look up the classes now rather than at every table
+        try {
+            MethodType type = shoeDecks == 0 ?
+                    MethodType.methodType(void.class) :
+                    MethodType.methodType(void.class, int.class, int[].class, double.class);
+
+            deckConstructor = MethodHandles.publicLookup().findConstructor(Class.forName(deckClassName), type);
+
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException("no deck "+deckClassName, ex);
+        }
+
+        ArrayList<MethodHandle> sinks = new ArrayList<>();
+
+        for(int k=0; k < listenerClassNames.size(); k++)
+            sinks.add(findListener(listenerClassNames.get(k), listenerPaths.get(k)));
+
+        listenerConstructors = Collections.unmodifiableList(sinks);
+
+        ArrayList<Supplier<AbstractPlayer>> constructors = new ArrayList<>();
+
+        for(String name: playerClassNames)
+            constructors.add(PlayerFactory.getConstructor(name));
+
+        playerConstructors = Collections.unmodifiableList(constructors);
+
+        IDeck deck = newDeck();
+
+        evaluator = cards > 1 ? new HandEvaluator(deck.getWinTable(), cards, ranking) : null;
+    }
+
+    /**
+     * Loads the config file and profile of the system properties.
+     * @return Configuration
+     * @throws IOException
+     * @throws ParseException
+     */
+    public static GameConfig load() throws IOException, ParseException {
+        return load(System.getProperty("poker.config", CONFIG_PATH), System.getProperty("poker.profile"));
+    }
+
+    /**
+     * Loads a config file.
+     * @param path Path of the config file
+     * @return Configuration
+     * @throws IOException
+     * @throws ParseException
+     */
+    public static GameConfig load(String path) throws IOException, ParseException {
+        return load(path, null);
+    }
+
+    /**
+     * Loads a profile of a config file.
+     * @param path Path of the config file
+     * @param profile Profile or null for the top of the file only
+     * @return Configuration
+     * @throws IOException
+     * @throws ParseException
+     */
+    public static GameConfig load(String path, String profile) throws IOException, ParseException {
+        try (Reader reader = new FileReader(path)) {
+            JSONObject json = (JSONObject) new JSONParser().parse(reader);
+
+            if(profile != null) {
+                JSONObject profiles = (JSONObject) json.get("profiles");
+
+                JSONObject keys = profiles == null ? null : (JSONObject) profiles.get(profile);
+
+                if(keys == null)
+                    throw new IllegalArgumentException("no profile "+profile+" in "+path);
+
+                replace(json, keys);
+            }
+
+            json.remove("profiles");
+
+            return new GameConfig(json, profile);
+        }
+    }
+
+    /**
+     * Looks up the constructor of a sink, which takes the path as its only
+     * argument if there is one, and binds the path.
+     * @param className Class name
+     * @param path Path or null
+     * @return Constructor with no arguments which returns the sink
+     * @throws IllegalArgumentException if there's no such sink
+     */
+    protected static MethodHandle findListener(String className, String path) {
+        try {
+            Class<?> clazz = Class.forName(className);
+
+            if(!GameEventListener.class.isAssignableFrom(clazz))
+                throw new IllegalArgumentException(className+" is not a listener");
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            MethodHandle constructor;
+
+            if(path == null)
+                constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+            else
+                constructor = MethodHandles.insertArguments(
+                        lookup.findConstructor(clazz, MethodType.methodType(void.class, String.class)), 0, path);
+
+            return constructor.asType(MethodType.methodType(GameEventListener.class));
+
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException("no listener "+className, ex);
+        }
+    }
+
+    /**
+     * Replaces keys of the file with those of a profile.
+     * @param json Keys of the file
+     * @param keys Keys of the profile
+     */
+    @SuppressWarnings("unchecked")
+    protected static void replace(JSONObject json, JSONObject keys) {
+        json.putAll(keys);
+    }
+
+    /**
+     * Parses the copies of each rank from 2 up in a deck of the shoe, which
+     * is either one number for every rank or a list by rank.
+     * @param spec Number, list, or null for one copy
+     * @return Copies
+     */
+    protected static int[] parseCopies(Object spec) {
+        int[] copies = new int[Card.ACE - 1];
+
+        if(spec instanceof JSONArray) {
+            JSONArray array = (JSONArray) spec;
+
+            for(int k=0; k < copies.length; k++)
+                copies[k] = ((Long) array.get(k)).intValue();
+        }
+        else
+            Arrays.fill(copies, spec == null ? 1 : ((Long) spec).intValue());
+
+        return copies;
+    }
+
+    /**
+     * Instantiates a new deck of the configured class. If there's a shoe,
+     * the deck is constructed with the number of decks, the copies of each
+     * rank, and the penetration.
+     * @return IDeck
+     * @throws IllegalArgumentException if the class could not be instantiated
+     */
+    public IDeck newDeck() {
+        try {
+            IDeck newDeck;
+
+            if(shoeDecks == 0)
+                newDeck = (IDeck) deckConstructor.invoke();
+            else
+                newDeck = (IDeck) deckConstructor.invoke(shoeDecks, shoeCopies.clone(), shoePenetration);
+
+            if(seed != null)
+                newDeck.seed(seed);
+
+            return newDeck;
+
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+
+        } catch (Throwable ex) {
+            throw new IllegalArgumentException("can't construct deck "+deckClassName, ex);
+        }
+    }
+
+    /**
+     * Instantiates a new set of players of the configured classes, each
+     * with its share of the bank.
+     * @return List of players
+     */
+    public ArrayList<AbstractPlayer> newPlayers() {
+        ArrayList<AbstractPlayer> newPlayers = new ArrayList<>(playerConstructors.size());
+
+        int credit = Bank.getCredit(this);
+
+        for(Supplier<AbstractPlayer> constructor: playerConstructors) {
+            AbstractPlayer player = constructor.get();
+
+            player.setBankroll(credit);
+
+            newPlayers.add(player);
+        }
+
+        return newPlayers;
+    }
+
+    /**
+     * Gets a set of players of the configured classes from a factory, each
+     * with its share of the bank.
+     * @param factory Factory which may reuse players
+     * @return List of players
+     */
+    public ArrayList<AbstractPlayer> newPlayers(PlayerFactory factory) {
+        ArrayList<AbstractPlayer> newPlayers = new ArrayList<>(playerClassNames.size());
+
+        int credit = Bank.getCredit(this);
+
+        for(String name: playerClassNames) {
+            AbstractPlayer player = factory.newPlayer(name);
+
+            player.setBankroll(credit);
+
+            newPlayers.add(player);
+        }
+
+        return newPlayers;
+    }
+
+    /**
+     * Gives players made by newPlayers back to their factory.
+     * @param factory Factory
+     * @param players Players by seat
+     */
+    public void recycle(PlayerFactory factory, List<AbstractPlayer> players) {
+        for(int seat=0; seat < players.size(); seat++)
+            factory.recycle(playerClassNames.get(seat), players.get(seat));
+    }
+
+    /**
+     * Instantiates new game event sinks of the configured classes. A sink
+     * with a "path" is constructed with the path as its only argument.
+     * @return Sink which ignores everything if none are configured
+     * @throws IllegalArgumentException if a class could not be instantiated
+     */
+    public GameEventListener newListener() {
+        GameEventListener[] listeners = new GameEventListener[listenerConstructors.size()];
+
+        for(int k=0; k < listeners.length; k++) {
+            try {
+                listeners[k] = (GameEventListener) listenerConstructors.get(k).invokeExact();
+
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+
+            } catch (Throwable ex) {
+                throw new IllegalArgumentException("can't construct listener "+listenerClassNames.get(k), ex);
+            }
+        }
+
+        if(listeners.length == 0)
+            return NullListener.INSTANCE;
+
+        if(listeners.length == 1)
+            return listeners[0];
+
+        return new ListenerList(listeners);
+    }
+
+    /**
+     * Gets the profile.
+     * @return Profile or null if none
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * Gets the class names of the players by seat.
+     * @return List of class names
+     */
+    public List<String> getPlayerClassNames() {
+        return playerClassNames;
+    }
+
+    /**
+     * Gets number of players.
+     * @return Integer
+     */
+    public int getNumPlayers() {
+        return playerClassNames.size();
+    }
+
+    /**
+     * Gets number of games.
+     * @return Integer
+     */
+    public int getNumGames() {
+        return numGames;
+    }
+
+    /**
+     * Gets the bank total chips.
+     * @return Integer
+     */
+    public int getBank() {
+        return bank;
+    }
+
+    /**
+     * Gets the minimum bet in chips.
+     * @return Integer
+     */
+    public int getMinBet() {
+        return minBet;
+    }
+
+    /**
+     * Gets the number of cards in a hand.
+     * @return Integer
+     */
+    public int getCards() {
+        return cards;
+    }
+
+    /**
+     * Gets the evaluator for hands of more than one card, which all tables
+     * may share.
+     * @return Evaluator or null if a hand is one card
+     */
+    public HandEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Gets the rule for settling ties.
+     * @return Tie rule
+     */
+    public TieRule getTieRule() {
+        return tieRule;
+    }
+
+    /**
+     * Gets the local port to serve the metrics on.
+     * @return Port or -1 if the metrics aren't served
+     */
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * Gets the path of the file to write the metrics to.
+     * @return Path or null if the metrics aren't written
+     */
+    public String getMetricsPath() {
+        return metricsPath;
+    }
+
+    /**
+     * Gets the seconds between writes of the metrics file.
+     * @return Seconds
+     */
+    public int getMetricsPeriod() {
+        return metricsPeriod;
+    }
+
+    /**
+     * Gets the seed for the deck.
+     * @return Seed or null if the config file has no seed
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Answers whether game is in debug mode.
+     * @return Boolean
+     */
+    public boolean isDebugging() {
+        return debug;
+    }
+}
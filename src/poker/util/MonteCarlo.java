@@ -1,142 +1,226 @@
-/*
- Copyright (c) 2015 Ron Coleman
- Permission is hereby granted, free of charge, to any person obtaining
- a copy of this software and associated documentation files (the
- "Software"), to deal in the Software without restriction, including
- without limitation the rights to use, copy, modify, merge, publish,
- distribute, sublicense, and/or sell copies of the Software, and to
- permit persons to whom the Software is furnished to do so, subject to
- the following conditions:
- The above copyright notice and this permission notice shall be
- included in all copies or substantial portions of the Software.
- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
- EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
- MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
- NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
- LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
- OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
- WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
- */
-package poker.util;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Random;
-
-/**
- * Performs Monte Carlo simulation to estimate the Poughkeepsie hold'em win probability.
- * @author Ron.Coleman
- */
-public class MonteCarlo {
-    /**
-     * Set this to true to enable debugging
-     */
-    private final static Boolean DEBUG = false;
-
-    /**
-     * Number of players.
-     * 
-     */
-    private final static int NUM_PLAYERS = 4;
-    
-    /**
-     * Number of games to play. It should not be less than 1,000 to get
-     * stable statistics.
-     */
-    private final static int NUM_GAMES = 100000;
-    
-    /**
-     * We'll run this many trials just to see how the numbers settle.
-    */
-    private final static int NUM_TRIALS = 11;
-
-    public static void main(String[] args) {
-        int numPlayers = NUM_PLAYERS;
-        if(args.length != 0)
-            numPlayers = Integer.parseInt(args[0]);
-
-        if(!DEBUG)
-            System.out.print(numPlayers+" players: ");
-        
-        long t0 = System.currentTimeMillis();
-        
-        int[] hands = new int[numPlayers];
-
-        Random ran = new Random();
-
-        // Test each card
-        for (int myCard = 2; myCard <= 11; myCard++) {
-            if(DEBUG)
-                System.out.printf("card %2d ",myCard);
-
-            // Run through the trials of N games each
-            ArrayList<Double> wps = new ArrayList<>();
-            
-            for (int trial = 0; trial < NUM_TRIALS; trial++) {
-                
-                int wins = 0;
-                
-                // Play N games
-                for (int game = 0; game < NUM_GAMES; game++) {
-                    // Set up the Pok hold'em deck
-                    ArrayList<Integer> deck =
-                            new ArrayList<>(Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
-
-                    // Draw a card -- that I'm always first in this case doesn't matter
-                    hands[0] = myCard;
-
-                    // Take my card from the deck
-                    deck.remove(new Integer(myCard));
-
-                    // Shuffle the deck
-                    Collections.shuffle(deck, ran);
-
-                    // Deal the cards
-                    for (int hand = 1; hand < hands.length; hand++) {
-                        int card = deck.remove(0);
-
-                        hands[hand] = card;
-                    }
-
-                    // Determine if I win
-                    Boolean won = true;
-
-                    for (int hand = 1; hand < hands.length; hand++) {
-                        if (hands[0] < hands[hand]) {
-                            won = false;
-                            break;
-                        }
-                    }
-
-                    if (won) {
-                        wins++;
-                    }
-                }
-
-                // Report the win probability for each trial
-                double wp = (double) wins / NUM_GAMES;
-                if(DEBUG)
-                    System.out.printf("%6.3f ",wp);
-                
-                wps.add(wp);
-            }
-            
-            Collections.sort(wps);
-            
-            String format = "%6.3f ";
-            if(DEBUG)
-                format = " %6.3f\n";
-            System.out.printf(format,wps.get(NUM_TRIALS/2));
-
-        }
-        
-        long t1 = System.currentTimeMillis();
-        
-        if(!DEBUG)
-            System.out.println("");
-        
-        System.out.println("time: "+(t1-t0)/1000.+" s");
-    }
-
-}
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.util;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import poker.card.WinTable;
+
+/**
+ * Performs Monte Carlo simulation to estimate the Poughkeepsie hold'em win probability.<p>
+ * Usage: MonteCarlo [players [epsilon]]<p>
+ * Every (card, number of players) cell from two players up is sampled in
+ * batches until the half-width of its 95% Wilson interval is below
+ * epsilon, so the sure cards stop after one batch and the close ones get
+ * the samples they need.
+ * @author Ron.Coleman
+ */
+public class MonteCarlo {
+    /**
+     * Number of players.
+     * 
+     */
+    private final static int NUM_PLAYERS = 4;
+    
+    /**
+     * Largest half-width of the 95% confidence interval of a win probability.
+     */
+    private final static double EPSILON = 0.001;
+    
+    /**
+     * Number of games in a batch between convergence checks.
+     */
+    private final static int BATCH = 10000;
+    
+    /**
+     * Most games to play in a cell whether or not it converges.
+     */
+    private final static long MAX_GAMES = 10000000;
+
+    /**
+     * Lowest card rank.
+     */
+    private final static int MIN_RANK = 2;
+    
+    /**
+     * Number of cards in the Pok hold'em deck, 2-Ace.
+     */
+    private final static int NUM_CARDS = 10;
+
+    public static void main(String[] args) {
+        int maxPlayers = NUM_PLAYERS;
+        if(args.length > 0)
+            maxPlayers = Integer.parseInt(args[0]);
+        
+        double epsilon = EPSILON;
+        if(args.length > 1)
+            epsilon = Double.parseDouble(args[1]);
+        
+        long t0 = System.currentTimeMillis();
+        
+        // Every card and number of players from two up is a cell with its
+        // own random stream so the cells can run in parallel in any order
+        int numCounts = maxPlayers - 1;
+        
+        int numCells = NUM_CARDS * numCounts;
+        
+        SplittableRandom ran = new SplittableRandom();
+        
+        SplittableRandom[] streams = new SplittableRandom[numCells];
+        for(int cell=0; cell < numCells; cell++)
+            streams[cell] = ran.split();
+        
+        double[] wps = new double[numCells];
+        
+        long[] samples = new long[numCells];
+        
+        double eps = epsilon;
+        
+        IntStream.range(0, numCells).parallel().forEach((cell) -> {
+            int numPlayers = 2 + cell / NUM_CARDS;
+            
+            int myCard = MIN_RANK + cell % NUM_CARDS;
+            
+            long[] result = estimate(myCard, numPlayers, eps, streams[cell]);
+            
+            wps[cell] = (double) result[0] / result[1];
+            
+            samples[cell] = result[1];
+        });
+
+        // Report the win probability for each card by number of players
+        // and its error against the exact table
+        WinTable exact = WinTable.getStandard();
+        
+        long total = 0;
+        
+        double maxError = 0;
+        
+        for(int count = 0; count < numCounts; count++) {
+            int numPlayers = 2 + count;
+            
+            System.out.print(numPlayers+" players: ");
+            
+            for (int card = 0; card < NUM_CARDS; card++) {
+                int cell = count * NUM_CARDS + card;
+                
+                System.out.printf("%6.3f ",wps[cell]);
+                
+                total += samples[cell];
+                
+                maxError = Math.max(maxError, Math.abs(wps[cell] - exact.get(numPlayers, MIN_RANK + card)));
+            }
+            
+            System.out.println("");
+            
+            // Show where the samples went, i.e., to the close cards
+            System.out.print("    games: ");
+            
+            for (int card = 0; card < NUM_CARDS; card++)
+                System.out.printf("%d ",samples[count * NUM_CARDS + card]);
+            
+            System.out.println("");
+        }
+        
+        long t1 = System.currentTimeMillis();
+        
+        System.out.printf("games: %d max error: %.4f\n",total,maxError);
+        
+        System.out.println("time: "+(t1-t0)/1000.+" s");
+    }
+    
+    /**
+     * Plays batches of games until the 95% confidence interval of my win
+     * probability is narrow enough.
+     * @param myCard My card rank
+     * @param numPlayers Number of players including me
+     * @param epsilon Largest half-width of the confidence interval
+     * @param ran Random stream
+     * @return Number of games I win and number of games played
+     */
+    public static long[] estimate(int myCard, int numPlayers, double epsilon, SplittableRandom ran) {
+        long wins = 0;
+        
+        long games = 0;
+        
+        do {
+            wins += simulate(myCard, numPlayers, BATCH, ran);
+            
+            games += BATCH;
+            
+        } while(games < MAX_GAMES && Confidence.getWilsonHalfWidth(wins, games, Confidence.Z95) > epsilon);
+        
+        return new long[] { wins, games };
+    }
+    
+    /**
+     * Plays games with my card against the rest of the deck.<p>
+     * The deck is a reusable array and each game does a partial Fisher-Yates
+     * shuffle that deals only the opponents' cards, stopping as soon as one
+     * of them beats me.
+     * @param myCard My card rank
+     * @param numPlayers Number of players including me
+     * @param numGames Number of games
+     * @param ran Random stream
+     * @return Number of games I win
+     */
+    public static int simulate(int myCard, int numPlayers, int numGames, SplittableRandom ran) {
+        // Set up the Pok hold'em deck without my card
+        int[] deck = new int[NUM_CARDS - 1];
+        
+        int size = 0;
+        for(int card = MIN_RANK; card < MIN_RANK + NUM_CARDS; card++)
+            if(card != myCard)
+                deck[size++] = card;
+        
+        int wins = 0;
+        
+        // Play N games
+        for (int game = 0; game < numGames; game++) {
+            // Determine if I win
+            boolean won = true;
+            
+            // Deal the cards -- the deck is any permutation from the last
+            // game which is as good as a fresh one for Fisher-Yates
+            for (int hand = 1; hand < numPlayers; hand++) {
+                int k = hand - 1;
+                
+                int j = k + ran.nextInt(size - k);
+                
+                int card = deck[j];
+                
+                deck[j] = deck[k];
+                
+                deck[k] = card;
+                
+                if (myCard < card) {
+                    won = false;
+                    break;
+                }
+            }
+            
+            if (won)
+                wins++;
+        }
+        
+        return wins;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ Copyright (c) 2015 Ron Coleman
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package poker.player;
+
+import org.junit.Assert;
+import org.junit.Test;
+import poker.card.WinTable;
+import poker.util.Action;
+
+/**
+ * This class tests the decision kernel against the bet decision tree it
+ * replaced over a grid of inputs, including the win probabilities right
+ * on the thresholds.
+ * @author Ron.Coleman
+ */
+public class DecisionKernelTest {
+    // Thresholds of the grid, the bots' among them
+    private final static double[] THRESHOLDS = {0.0, 0.1, 0.25, 0.5, 0.75, 0.8, 0.9, 1.0};
+
+    // Largest bankroll and raise of the grid in chips
+    private final static int MAX_CHIPS = 4;
+
+    /**
+     * Implements the bet decision tree AbstractPlayer.getAction had before
+     * the kernel.
+     * @param wp Win probability
+     * @param alpha Threshold to stay in
+     * @param beta Threshold to raise
+     * @param bankroll Bankroll in chips
+     * @param raise Amount to call
+     * @return Action
+     */
+    protected static Action tree(double wp, double alpha, double beta, int bankroll, int raise) {
+        // If we have no cushion to make a bet, we must fold
+        int cover = bankroll - raise;
+
+        if (cover < 0)
+            return Action.FOLD;
+
+        // Do bet decision tree
+        if (wp >= alpha) {
+            if (wp >= beta && cover > 0)
+                return Action.RAISE;
+            else if(raise == 0 || cover == 0)
+                return Action.CHECK;
+        }
+
+        else if (wp < alpha && raise == 0)
+            return Action.CHECK;
+
+        // We'll arrive here if we can't raise or check
+        return Action.FOLD;
+    }
+
+    @Test
+    public void testDecideMatchesTree() {
+        for(double alpha: THRESHOLDS)
+            for(double beta: THRESHOLDS)
+                for(int step=0; step <= 100; step++)
+                    for(int bankroll=0; bankroll <= MAX_CHIPS; bankroll++)
+                        for(int raise=0; raise <= MAX_CHIPS; raise++) {
+                            double wp = step / 100.0;
+
+                            Assert.assertEquals("wp="+wp+" a="+alpha+" b="+beta+" bankroll="+bankroll+" raise="+raise,
+                                    tree(wp, alpha, beta, bankroll, raise).value,
+                                    DecisionKernel.decide(wp, alpha, beta, bankroll, raise));
+                        }
+    }
+
+    @Test
+    public void testDecideOnThresholds() {
+        for(double alpha: THRESHOLDS)
+            for(double beta: THRESHOLDS)
+                for(double wp: new double[] {alpha, beta, Math.nextDown(alpha), Math.nextDown(beta)})
+                    for(int bankroll=0; bankroll <= MAX_CHIPS; bankroll++)
+                        for(int raise=0; raise <= MAX_CHIPS; raise++)
+                            Assert.assertEquals("wp="+wp+" a="+alpha+" b="+beta+" bankroll="+bankroll+" raise="+raise,
+                                    tree(wp, alpha, beta, bankroll, raise).value,
+                                    DecisionKernel.decide(wp, alpha, beta, bankroll, raise));
+    }
+
+    @Test
+    public void testBatchMatchesScalar() {
+        int count = THRESHOLDS.length * THRESHOLDS.length * (MAX_CHIPS + 1);
+
+        double[] wps = new double[count];
+        double[] alphas = new double[count];
+        double[] betas = new double[count];
+        int[] bankrolls = new int[count];
+        byte[] actions = new byte[count];
+
+        for(int raise=0; raise <= MAX_CHIPS; raise++) {
+            int k = 0;
+
+            for(double alpha: THRESHOLDS)
+                for(double beta: THRESHOLDS)
+                    for(int bankroll=0; bankroll <= MAX_CHIPS; bankroll++) {
+                        wps[k] = (k % 21) / 20.0;
+                        alphas[k] = alpha;
+                        betas[k] = beta;
+                        bankrolls[k] = bankroll;
+                        k++;
+                    }
+
+            DecisionKernel.decide(wps, alphas, betas, bankrolls, raise, actions, count);
+
+            for(k=0; k < count; k++)
+                Assert.assertEquals("bot "+k+" raise="+raise,
+                        DecisionKernel.decide(wps[k], alphas[k], betas[k], bankrolls[k], raise), actions[k]);
+        }
+    }
+
+    @Test
+    public void testCompiledMatchesDecide() {
+        WinTable table = WinTable.getStandard();
+
+        for(double alpha: THRESHOLDS)
+            for(double beta: THRESHOLDS) {
+                byte[] policy = DecisionKernel.compile(table, alpha, beta);
+
+                for(int numHands=0; numHands <= table.getMaxHands(); numHands++)
+                    for(int rank=table.getMinRank(); rank < table.getMinRank() + table.getNumRanks(); rank++)
+                        for(int bankroll=0; bankroll <= MAX_CHIPS; bankroll++)
+                            for(int raise=0; raise <= MAX_CHIPS; raise++) {
+                                int index = DecisionKernel.index(table, rank, numHands, raise, bankroll - raise);
+
+                                Assert.assertEquals("hands="+numHands+" rank="+rank+" a="+alpha+" b="+beta+" bankroll="+bankroll+" raise="+raise,
+                                        DecisionKernel.decide(table.get(numHands, rank), alpha, beta, bankroll, raise), policy[index]);
+                            }
+            }
+    }
+}